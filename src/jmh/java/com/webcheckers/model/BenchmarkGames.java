@@ -0,0 +1,72 @@
+package com.webcheckers.model;
+
+/**
+ * Games set up at realistic points for the benchmarks. Each position is red, white and
+ * king masks with red to move, taken from a game the engine played against itself.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public final class BenchmarkGames {
+
+    public static final String OPENING = "OPENING";
+    public static final String MID_GAME = "MID_GAME";
+    public static final String END_GAME = "END_GAME";
+
+    private BenchmarkGames() {
+    }
+
+    /**
+     * @param position {@link #OPENING}, {@link #MID_GAME} or {@link #END_GAME}
+     * @return red, white and king masks for the position
+     */
+    public static int[] masks(String position) {
+        switch (position) {
+            case OPENING:
+                return new int[]{0xFFF00000, 0x00000FFF, 0x00000000};
+            case MID_GAME:
+                return new int[]{0xA1864000, 0x0000099E, 0x00000000};
+            case END_GAME:
+                return new int[]{0x200C0004, 0x04000C08, 0x04000004};
+            default:
+                throw new IllegalArgumentException("Unknown benchmark position " + position);
+        }
+    }
+
+    /**
+     * @param position {@link #OPENING}, {@link #MID_GAME} or {@link #END_GAME}
+     * @return a new {@link Game} at that position, red to move
+     */
+    public static Game create(String position) {
+        Game game = new Game(new Player("red"), new Player("white"));
+        reset(game, position);
+        return game;
+    }
+
+    /**
+     * Put a {@link Game}'s board back to a position, dropping any moves in progress.
+     *
+     * @param game     the game
+     * @param position {@link #OPENING}, {@link #MID_GAME} or {@link #END_GAME}
+     */
+    public static void reset(Game game, String position) {
+        int[] masks = masks(position);
+        while (game.backUp()) {
+            // Drop the moves in progress
+        }
+        game.getBoard(false).getBoard().setPieces(masks[0], masks[1], masks[2]);
+        // Changing player drops the cached legal moves for the old position.
+        game.changePlayer();
+        if (!game.getColor().equals(Piece.Color.RED)) {
+            game.changePlayer();
+        }
+        game.reload();
+    }
+
+    /**
+     * @param game a game
+     * @return the first step of the first legal turn for the side to move
+     */
+    public static Move firstStep(Game game) {
+        return game.getLegalMoves().getMoves(0).get(0);
+    }
+}
@@ -0,0 +1,87 @@
+package com.webcheckers.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@link Game} calls made while serving a turn.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    @Param({BenchmarkGames.MID_GAME, BenchmarkGames.END_GAME})
+    public String position;
+
+    private Game game;
+    private Player player;
+    private Move step;
+    private List<Move> turn;
+
+    @Setup
+    public void setUp() {
+        this.game = BenchmarkGames.create(position);
+        this.player = this.game.getRedPlayer();
+        this.step = BenchmarkGames.firstStep(this.game);
+        this.turn = this.game.getLegalMoves().getMoves(0);
+    }
+
+    /**
+     * One step made and taken back, as with the backup button.
+     */
+    @Benchmark
+    public Game addMoveAndBackUp() {
+        this.game.addMove(this.step);
+        this.game.backUp();
+        return this.game;
+    }
+
+    /**
+     * A whole turn made and submitted. The position is put back each time, which adds
+     * a small fixed cost.
+     */
+    @Benchmark
+    public boolean submitTurn() {
+        BenchmarkGames.reset(this.game, position);
+        for (Move move : this.turn) {
+            this.game.addMove(move);
+        }
+        return this.game.submitMoves();
+    }
+
+    /**
+     * Checking for the end of the game at the start of a turn, when the legal turns have
+     * not been generated yet.
+     */
+    @Benchmark
+    public boolean isOver() {
+        // Switching twice drops the legal turns cached by the last call.
+        this.game.changePlayer();
+        this.game.changePlayer();
+        return this.game.isOver();
+    }
+
+    @Benchmark
+    public Map<String, Object> getGameAttributes() {
+        return this.game.getGameAttributes(this.player);
+    }
+}
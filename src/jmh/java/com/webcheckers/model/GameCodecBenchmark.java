@@ -0,0 +1,78 @@
+package com.webcheckers.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of storing a {@link Game} with {@link GameCodec}, against Java serialization as
+ * the game files used to. The sizes of both forms are printed during setup.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameCodecBenchmark {
+
+    @Param({BenchmarkGames.MID_GAME, BenchmarkGames.END_GAME})
+    public String position;
+
+    private Game game;
+    private byte[] encoded;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.game = BenchmarkGames.create(position);
+        this.game.addMove(BenchmarkGames.firstStep(this.game));
+        this.encoded = this.encode();
+        this.serialized = this.serialize();
+        System.out.printf("%n%s: codec %d bytes, serialization %d bytes%n", position, this.encoded.length,
+                this.serialized.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return GameCodec.encode(this.game);
+    }
+
+    @Benchmark
+    public Game decode() throws IOException {
+        return GameCodec.decode(this.encoded);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(this.game);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Game deserialize() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(this.serialized))) {
+            return (Game) in.readObject();
+        }
+    }
+}
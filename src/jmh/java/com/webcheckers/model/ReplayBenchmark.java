@@ -0,0 +1,61 @@
+package com.webcheckers.model;
+
+import com.webcheckers.util.Attributes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of seeking a {@link Replay} to a random ply of a long game, by keyframe interval.
+ * An interval longer than the game replays every seek from the opening position.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplayBenchmark {
+
+    private static final int PLIES = 200;
+
+    @Param({"1", "8", "1000"})
+    public int interval;
+
+    private Replay replay;
+    private final Random random = new Random(1);
+
+    @Setup
+    public void setUp() {
+        // Play the whole game out rather than stopping once it is decided.
+        Attributes.ADJUDICATE_ENDGAMES = false;
+        Random moves = new Random(1);
+        Game game;
+        do {
+            game = new Game(new Player("red"), new Player("white"));
+            while (game.getPly() < PLIES && !game.isOver()) {
+                MoveList legal = game.getLegalMoves();
+                game.playTurn(legal.getMoves(moves.nextInt(legal.size())));
+            }
+        } while (game.getPly() < PLIES);
+        this.replay = new Replay(game, interval);
+    }
+
+    @Benchmark
+    public Board seek() {
+        return this.replay.getBoard(this.random.nextInt(PLIES + 1));
+    }
+}
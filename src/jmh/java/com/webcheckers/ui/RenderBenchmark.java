@@ -0,0 +1,96 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.appl.LobbySnapshot;
+import com.webcheckers.model.BenchmarkGames;
+import com.webcheckers.model.Game;
+import com.webcheckers.model.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import spark.ModelAndView;
+import spark.TemplateEngine;
+import spark.template.freemarker.FreeMarkerEngine;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.webcheckers.util.Attributes.*;
+import static java.lang.Boolean.TRUE;
+
+/**
+ * Cost of rendering the game and home pages with FreeMarker, using the same view
+ * models {@link GetGameRoute} and {@link GetHomeRoute} build.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+    @Param({BenchmarkGames.MID_GAME, BenchmarkGames.END_GAME})
+    public String position;
+
+    /**
+     * Number of other players listed on the home page
+     */
+    @Param({"20"})
+    public int players;
+
+    private TemplateEngine templateEngine;
+    private Game game;
+    private Player player;
+    private Map<String, Object> homeModel;
+
+    @Setup
+    public void setUp() {
+        this.templateEngine = new FreeMarkerEngine();
+        this.game = BenchmarkGames.create(position);
+        this.player = this.game.getRedPlayer();
+
+        List<Map.Entry<String, String>> playerList = new ArrayList<>();
+        StringBuilder expired = new StringBuilder(EXPIRE_CHAR);
+        for (int i = 0; i < players; i++) {
+            String name = "Player " + i;
+            playerList.add(new AbstractMap.SimpleEntry<>(name, i % 3 == 0 ? LobbySnapshot.IN_GAME : LobbySnapshot.IS_OTHER));
+            if (i % 5 == 0) {
+                expired.append(name).append(EXPIRE_CHAR);
+            }
+        }
+        this.homeModel = new HashMap<>();
+        this.homeModel.put(TITLE_ATTR, WELCOME_TITLE);
+        this.homeModel.put(CURRENT_PLAYER_ATTR, this.player);
+        this.homeModel.put(SIGNED_IN_ATTR, TRUE);
+        this.homeModel.put(PLAYER_LIST_ATTR, playerList);
+        this.homeModel.put(EXPIRE_TEXT_ATTR, expired.toString());
+    }
+
+    @Benchmark
+    public String gamePage() {
+        Map<String, Object> vm = this.game.getGameAttributes(this.player);
+        vm.put(TITLE_ATTR, MAIN_TITLE);
+        vm.put(CURRENT_PLAYER_ATTR, this.player);
+        vm.put(AUTOSTART_ATTR, TRUE);
+        return this.templateEngine.render(new ModelAndView(vm, GAME_FTL));
+    }
+
+    @Benchmark
+    public String homePage() {
+        return this.templateEngine.render(new ModelAndView(this.homeModel, HOME_FTL));
+    }
+}
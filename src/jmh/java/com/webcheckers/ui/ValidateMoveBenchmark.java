@@ -0,0 +1,74 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.model.BenchmarkGames;
+import com.webcheckers.model.Game;
+import com.webcheckers.model.Move;
+import com.webcheckers.util.Attributes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a {@link PostValidateMoveRoute} request past the HTTP layer: reading the
+ * {@link Move} from JSON, validating it against the {@link Game} and writing the reply.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidateMoveBenchmark {
+
+    @Param({BenchmarkGames.MID_GAME, BenchmarkGames.END_GAME})
+    public String position;
+
+    private Gson gson;
+    private Game game;
+    private int gameID;
+    private PostValidateMoveRoute route;
+    private String validBody;
+    private String invalidBody;
+
+    @Setup
+    public void setUp() {
+        // Keep the benchmark off the disk.
+        Attributes.STORE_CLIENTS = false;
+        GameCenter gameCenter = new GameCenter();
+        this.game = BenchmarkGames.create(position);
+        this.gameID = gameCenter.addGame(this.game);
+
+        this.gson = new Gson();
+        this.route = new PostValidateMoveRoute(this.gson, gameCenter);
+        Move valid = BenchmarkGames.firstStep(this.game);
+        this.validBody = this.gson.toJson(valid);
+        // Moving the same piece back where it came from is never legal.
+        this.invalidBody = this.gson.toJson(new Move(valid.getEnd(), valid.getStart()));
+    }
+
+    @Benchmark
+    public String validMove() {
+        String reply = this.gson.toJson(this.route.validateMove(this.gson.fromJson(this.validBody, Move.class), this.gameID));
+        this.game.backUp();
+        return reply;
+    }
+
+    @Benchmark
+    public String invalidMove() {
+        return this.gson.toJson(this.route.validateMove(this.gson.fromJson(this.invalidBody, Move.class), this.gameID));
+    }
+}
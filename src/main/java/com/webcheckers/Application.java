@@ -2,12 +2,16 @@ package com.webcheckers;
 
 import com.google.gson.Gson;
 import com.webcheckers.appl.ClientLobby;
+import com.webcheckers.appl.ComputerOpponent;
+import com.webcheckers.appl.GameArchive;
 import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.Journal;
 import com.webcheckers.appl.PlayerLobby;
 import com.webcheckers.ui.WebServer;
 import spark.TemplateEngine;
 import spark.template.freemarker.FreeMarkerEngine;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Objects;
 import java.util.logging.LogManager;
@@ -59,24 +63,48 @@ public final class Application {
         // response to Ajax requests.
         final Gson gson = new Gson();
 
+        // journal where every change to the server's state is stored
+        final Journal journal = new Journal(STORE_CLIENTS ? JOURNAL_DIRECTORY_PATH : null);
+
         // game center where all game data is stored
-        final GameCenter gameCenter = new GameCenter();
+        final GameCenter gameCenter = new GameCenter(journal,
+                new GameArchive(STORE_CLIENTS ? GAME_ARCHIVE_FILE_PATH : null));
 
 
         // client lobby where all client information is stored
-        final ClientLobby clientLobby = new ClientLobby(STORE_CLIENTS ? CLIENT_LOG_FILE_PATH : null);
+        final ClientLobby clientLobby = new ClientLobby(journal);
 
         // player lobby where all player data is stored
-        final PlayerLobby playerLobby = new PlayerLobby(gameCenter);
+        final PlayerLobby playerLobby = new PlayerLobby(gameCenter, clientLobby, journal);
+
+        // load the stored state now that everything storing it is set up
+        journal.recover();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                LOG.warning("Could not close journal because: " + e.getMessage());
+            }
+        }));
+
+        // expire idle players now that the player lobby is listening
+        clientLobby.start();
+
+        // computer opponent that plays its side of games in the game center
+        final ComputerOpponent computerOpponent = new ComputerOpponent(gameCenter);
 
         // inject the game center and freemarker engine into web server
-        final WebServer webServer = new WebServer(playerLobby, templateEngine, gson, gameCenter, clientLobby);
+        final WebServer webServer = new WebServer(playerLobby, templateEngine, gson, gameCenter, clientLobby,
+                computerOpponent, journal);
 
         // inject web server into application
         final Application app = new Application(webServer);
 
         // start the application up
         app.initialize();
+
+        // decode the recovered games now that requests are being served
+        gameCenter.warmUp();
     }
 
     private final WebServer webServer;
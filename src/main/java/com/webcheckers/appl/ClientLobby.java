@@ -7,54 +7,199 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import static com.webcheckers.util.Attributes.*;
 
 /**
  * A lobby to map players to their IP addresses.
+ * <p>
+ * The lobby also tracks when each {@Link Player} was last seen. A player not seen for
+ * {@Link Attributes#EXPIRE_TIME} is offline, and one not seen for
+ * {@Link Attributes#SIGN_OUT_TIME} is signed out and forgotten. Each player waits on an
+ * {@Link ExpiryWheel} for their next deadline, so a tick only does work for the players
+ * due then, and {@Link Listener}s are told as players go offline, come back and are
+ * signed out.
+ * </p>
+ * <p>
+ * Sign-ins, sign-outs and expiries are stored in the {@Link Journal}. The time a player
+ * was last seen is stored when they sign in; times seen since are not stored.
+ * </p>
  *
  * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
  */
-public class ClientLobby {
+public class ClientLobby implements Journal.Store {
+    private static final Logger LOG = getLogger(ClientLobby.class);
 
-    private Map<String, String> addressMap;
-    private Map<String, Long> logoutTimes;
+    /**
+     * Told when {@Link Player}s change state. Called on the thread that noticed the change.
+     */
+    public interface Listener {
+
+        /**
+         * @param name name of a {@Link Player} seen again after going offline
+         */
+        void playerOnline(String name);
+
+        /**
+         * @param name name of a {@Link Player} not seen for {@Link Attributes#EXPIRE_TIME}
+         */
+        void playerOffline(String name);
+
+        /**
+         * @param name name of a {@Link Player} not seen for {@Link Attributes#SIGN_OUT_TIME},
+         *             who has been forgotten and should be signed out
+         */
+        void playerExpired(String name);
+    }
+
+    private final Map<String, String> addressMap = new ConcurrentHashMap<>();
+    private final Map<String, Long> logoutTimes = new ConcurrentHashMap<>();
+
+    /**
+     * Names of {@Link Player}s who are offline
+     */
+    private final Set<String> offline = ConcurrentHashMap.newKeySet();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ExpiryWheel wheel = new ExpiryWheel(EXPIRY_TICK, EXPIRY_WHEEL_SLOTS, this::check);
+    private final Journal journal;
 
     /**
-     * Instantiate a new {@Linkplain ClientLobby}
+     * Instantiate a new {@Linkplain ClientLobby} that stores nothing.
      */
     public ClientLobby() {
-        this.addressMap = new HashMap<>();
-        this.logoutTimes = new HashMap<>();
-        this.addressMap.put(SESSION_ID_ATTR, Long.toString(SESSION_ID));
+        this(new Journal(null));
     }
 
     /**
-     * Instantiate a new {@Linkplain ClientLobby} from an existing {@Linkplain File}.
+     * Instantiate a new {@Linkplain ClientLobby} kept in a {@Link Journal}. Its clients
+     * are loaded when the journal is recovered.
      *
-     * @param filePath The path the current server data is located at.
+     * @param journal {@Link Journal} to keep clients in
      */
-    public ClientLobby(String filePath) {
-        File readFile = new File(filePath);
+    public ClientLobby(Journal journal) {
+        this.journal = journal;
+        this.journal.register(this, Journal.Type.CLIENT_SIGNED_IN, Journal.Type.CLIENT_SIGNED_OUT,
+                Journal.Type.CLIENT_EXPIRED);
+        this.addressMap.put(SESSION_ID_ATTR, Long.toString(SESSION_ID));
+        if (!STORE_CLIENTS || !journal.isNew()) {
+            return;
+        }
+        File readFile = new File(CLIENT_LOG_FILE_PATH);
+        if (!readFile.exists()) {
+            return;
+        }
         try (
                 ObjectInputStream ois = new ObjectInputStream(new FileInputStream(readFile))
         ) {
-            Map[] maps = ((Map[]) ois.readObject());
-            this.addressMap = maps[0];
-            this.logoutTimes = maps[1];
-            try {
-                SESSION_ID = Long.parseLong(this.addressMap.get(SESSION_ID_ATTR));
-            } catch (NullPointerException ignored) {
-            }
-        } catch (ClassNotFoundException | IOException | NullPointerException e) {
-            if(readFile.exists()) {
-                readFile.delete();
-            }
-            this.addressMap = new HashMap<>();
-            this.logoutTimes = new HashMap<>();
+            // Clients stored before the journal
+            this.restoreLegacy(ois);
+        } catch (ClassNotFoundException | IOException | ClassCastException e) {
+            // Keep the file, in case it can be read by another version
+            LOG.log(Level.WARNING, "Cannot read " + readFile, e);
+            this.addressMap.clear();
+            this.logoutTimes.clear();
+            this.addressMap.put(SESSION_ID_ATTR, Long.toString(SESSION_ID));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void snapshot(DataOutputStream out) throws IOException {
+        Map<String, String> addresses = new HashMap<>(this.addressMap);
+        out.writeInt(addresses.size());
+        for (Map.Entry<String, String> entry : addresses.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeUTF(entry.getValue());
+        }
+        Map<String, Long> times = new HashMap<>(this.logoutTimes);
+        out.writeInt(times.size());
+        for (Map.Entry<String, Long> entry : times.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The session ID stored is used from now on.
+     */
+    @Override
+    public void restore(DataInputStream in) throws IOException {
+        for (int i = in.readInt(); i > 0; i--) {
+            this.addressMap.put(in.readUTF(), in.readUTF());
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            this.logoutTimes.put(in.readUTF(), in.readLong());
+        }
+        this.restoreSessionID();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The session ID stored is used from now on.
+     */
+    @Override
+    public void restoreLegacy(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        Map[] maps = ((Map[]) in.readObject());
+        this.addressMap.putAll((Map<String, String>) maps[0]);
+        this.logoutTimes.putAll((Map<String, Long>) maps[1]);
+        this.restoreSessionID();
+    }
+
+    /**
+     * Use the session ID stored in the address map, if there is one.
+     */
+    private void restoreSessionID() {
+        String sessionID = this.addressMap.get(SESSION_ID_ATTR);
+        if (sessionID != null) {
+            SESSION_ID = Long.parseLong(sessionID);
         }
         this.addressMap.put(SESSION_ID_ATTR, Long.toString(SESSION_ID));
-        this.log();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void replay(Journal.Type type, DataInputStream in) throws IOException {
+        switch (type) {
+            case CLIENT_SIGNED_IN:
+                String ip = in.readUTF();
+                String name = in.readUTF();
+                this.addressMap.put(ip, name);
+                this.logoutTimes.put(name, in.readLong());
+                break;
+            case CLIENT_SIGNED_OUT:
+                this.remove(in.readUTF());
+                break;
+            case CLIENT_EXPIRED:
+                String expired = in.readUTF();
+                this.logoutTimes.remove(expired);
+                this.addressMap.entrySet().removeIf(entry ->
+                        !entry.getKey().equals(SESSION_ID_ATTR) && entry.getValue().equals(expired));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Start expiring players. Call once the listeners are added and the {@Link Journal}
+     * is recovered, so none miss a player who expired while the server was down.
+     */
+    public void start() {
+        for (Map.Entry<String, Long> entry : this.logoutTimes.entrySet()) {
+            this.wheel.schedule(entry.getKey(), entry.getValue() + EXPIRE_TIME);
+        }
+        this.wheel.start();
     }
 
     /**
@@ -65,8 +210,20 @@ public class ClientLobby {
      */
     public void signIn(String ip, String name) {
         this.addressMap.put(ip, name);
-        this.logoutTimes.put(name, System.currentTimeMillis());
-        log();
+        this.updatePlayerTime(name);
+        long seen = this.logoutTimes.getOrDefault(name, System.currentTimeMillis());
+        this.journal.append(Journal.Type.CLIENT_SIGNED_IN, out -> {
+            out.writeUTF(ip);
+            out.writeUTF(name);
+            out.writeLong(seen);
+        });
+    }
+
+    /**
+     * @param listener {@Link Listener} to tell as players change state
+     */
+    public void addListener(Listener listener) {
+        this.listeners.add(listener);
     }
 
     /**
@@ -75,29 +232,34 @@ public class ClientLobby {
      * @param nameOrIP The name of the {@Link Player} signing out or the IP address of the client.
      */
     public void signOut(String nameOrIP) {
-        for (String ip : this.addressMap.keySet()) {
-            // If map contains ip or name, remove it.
-            if (ip.equals(nameOrIP) || this.addressMap.get(ip).equals(nameOrIP)) {
-                this.addressMap.remove(ip);
-                break;
-            }
+        if (this.remove(nameOrIP) != null) {
+            this.journal.append(Journal.Type.CLIENT_SIGNED_OUT, out -> out.writeUTF(nameOrIP));
         }
-        log();
     }
 
     /**
-     * Log the address map to {@Link File}.
+     * Remove a client and forget when its {@Link Player} was last seen.
+     *
+     * @param nameOrIP The name of the {@Link Player} or the IP address of the client.
+     * @return name of the {@Link Player} removed, or null if there was none
      */
-    public void log() {
-        if (STORE_CLIENTS) {
-            try (
-                    ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(new File(CLIENT_LOG_FILE_PATH)))
-            ) {
-                oos.writeObject(new Map[]{this.addressMap, this.logoutTimes});
-                oos.flush();
-            } catch (IOException ignored) {
+    private String remove(String nameOrIP) {
+        String name = this.addressMap.remove(nameOrIP);
+        if (name == null) {
+            for (Map.Entry<String, String> entry : this.addressMap.entrySet()) {
+                // If map contains name, remove it.
+                if (entry.getValue().equals(nameOrIP) && this.addressMap.remove(entry.getKey(), nameOrIP)) {
+                    name = nameOrIP;
+                    break;
+                }
             }
         }
+        if (name != null) {
+            // The wheel forgets players with no time.
+            this.logoutTimes.remove(name);
+            this.offline.remove(name);
+        }
+        return name;
     }
 
     /**
@@ -140,7 +302,65 @@ public class ClientLobby {
      * @param player {@Linkplain String}: Name of {@Link Player} being logged
      */
     public void updatePlayerTime(String player) {
-        this.logoutTimes.put(player, System.currentTimeMillis());
+        long now = System.currentTimeMillis();
+        Long previous = this.logoutTimes.put(player, now);
+        if (previous == null) {
+            this.wheel.schedule(player, now + EXPIRE_TIME);
+        } else if (this.offline.remove(player)) {
+            // Back online; bring the deadline forward from signing out to going offline
+            this.wheel.schedule(player, now + EXPIRE_TIME);
+            for (Listener listener : this.listeners) {
+                listener.playerOnline(player);
+            }
+        }
+        // Otherwise the deadline already waiting on the wheel finds the new time.
+    }
+
+    /**
+     * Called by the {@Link ExpiryWheel} when a {@Link Player} may have passed a deadline.
+     *
+     * @param player name of the player
+     * @param now    the current time in milliseconds
+     * @return time in milliseconds of the player's next deadline, or -1 once forgotten
+     */
+    private long check(String player, long now) {
+        Long seen = this.logoutTimes.get(player);
+        if (seen == null) {
+            // Signed out
+            return -1;
+        }
+        if (now < seen + EXPIRE_TIME) {
+            return seen + EXPIRE_TIME;
+        }
+        if (this.offline.add(player)) {
+            for (Listener listener : this.listeners) {
+                listener.playerOffline(player);
+            }
+        }
+        if (now < seen + SIGN_OUT_TIME) {
+            return seen + SIGN_OUT_TIME;
+        }
+        if (!this.logoutTimes.remove(player, seen)) {
+            // Seen again just now
+            return now + EXPIRE_TIME;
+        }
+        this.offline.remove(player);
+        this.addressMap.entrySet().removeIf(entry ->
+                !entry.getKey().equals(SESSION_ID_ATTR) && entry.getValue().equals(player));
+        // No request is waiting on the wheel's thread for this to be stored.
+        this.journal.enqueue(Journal.Type.CLIENT_EXPIRED, out -> out.writeUTF(player));
+        for (Listener listener : this.listeners) {
+            listener.playerExpired(player);
+        }
+        return -1;
+    }
+
+    /**
+     * @param player {@Linkplain String}: Name of a {@Link Player}
+     * @return True, if the player has not been seen for {@Link Attributes#EXPIRE_TIME}.
+     */
+    public boolean isOffline(String player) {
+        return this.offline.contains(player);
     }
 
     /**
@@ -158,14 +378,7 @@ public class ClientLobby {
      * @return {@Linkplain ArrayList} of {@Link Player}s
      */
     public ArrayList<String> getExpiredPlayers() {
-        ArrayList<String> ret = new ArrayList<>();
-        for (String name : this.logoutTimes.keySet()) {
-            long time = System.currentTimeMillis() - this.logoutTimes.get(name);
-            if (time >= EXPIRE_TIME) {
-                ret.add(name);
-            }
-        }
-        return ret;
+        return new ArrayList<>(this.offline);
     }
 
     public Map<String, String> getAddressMap() {
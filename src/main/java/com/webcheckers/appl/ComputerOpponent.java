@@ -0,0 +1,105 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.Game;
+import com.webcheckers.model.ParallelSearch;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.SearchResult;
+import com.webcheckers.model.TranspositionTable;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+import static com.webcheckers.util.Attributes.*;
+
+/**
+ * Plays the computer's side of any {@Link Game} against the computer {@Link Player}.
+ * Turns are searched on background threads so that routes return right away; the
+ * human player sees the computer's turn the next time their page checks the turn.
+ * Each {@Link Game} chooses how many threads search its turns, up to a server-wide cap.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public class ComputerOpponent {
+    private static final Logger LOG = getLogger(ComputerOpponent.class);
+
+    private final GameCenter gameCenter;
+    private final ExecutorService executor;
+    private final Set<Integer> thinking = ConcurrentHashMap.newKeySet();
+    private final ParallelSearch search;
+
+    /**
+     * @param gameCenter The {@Link GameCenter} holding the games the computer plays in
+     */
+    public ComputerOpponent(GameCenter gameCenter) {
+        this.gameCenter = gameCenter;
+        this.executor = Executors.newFixedThreadPool(COMPUTER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, ComputerOpponent.class.getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Each game's own search thread takes a permit from the same cap as its helpers.
+        this.search = new ParallelSearch(TranspositionTable.getShared(), MAX_SEARCH_THREADS);
+
+        initialize(ComputerOpponent.class);
+    }
+
+    /**
+     * @return A new {@Link Player} for the computer's side of a {@Link Game}.
+     */
+    public static Player createPlayer() {
+        return new Player(COMPUTER_NAME);
+    }
+
+    /**
+     * Start the computer's turn in a {@Link Game}, if it is the computer's turn and
+     * its turn is not already being searched. Safe to call as often as needed.
+     *
+     * @param gameID ID number of the {@Link Game}
+     */
+    public void takeTurn(int gameID) {
+        Game game = this.gameCenter.getGame(gameID);
+        if (game != null && game.getActivePlayer().isComputer() && this.thinking.add(gameID)) {
+            this.executor.execute(() -> {
+                try {
+                    this.play(gameID);
+                } finally {
+                    this.thinking.remove(gameID);
+                }
+            });
+        }
+    }
+
+    /**
+     * Search for and play the computer's turn.
+     *
+     * @param gameID ID number of the {@Link Game}
+     */
+    private void play(int gameID) {
+        Game game = this.gameCenter.getGame(gameID);
+        if (game == null || !game.getActivePlayer().isComputer() || game.isOver()) {
+            return;
+        }
+        // Search a copy, so page renders of the live board are never held up.
+        SearchResult result = this.search.search(game.copyBoard(), game.getColor(),
+                COMPUTER_MOVE_TIME, COMPUTER_MAX_DEPTH, game.getSearchThreads());
+        if (result == null) {
+            return;
+        }
+        LOG.info(String.format("Computer played in game %d: %s", gameID, result));
+        LOG.fine(String.format("Transposition table: %s", TranspositionTable.getShared()));
+
+        long stored;
+        synchronized (game) {
+            if (!game.getActivePlayer().isComputer()
+                    || game.playTurn(result.getMoves()) != Game.TurnResult.SUBMITTED) {
+                return;
+            }
+            stored = this.gameCenter.turnSubmitted(gameID, game);
+        }
+        this.gameCenter.awaitStored(stored);
+        this.gameCenter.turnPlayed(gameID, game);
+    }
+}
@@ -0,0 +1,183 @@
+package com.webcheckers.appl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.webcheckers.util.Attributes.getLogger;
+
+/**
+ * A hashed timing wheel that calls back when keys come due. Time is cut into ticks and
+ * each tick has a slot on the wheel; a key due at some tick waits in that tick's slot,
+ * so every tick only looks at the keys due then, however many keys are waiting.
+ * <p>
+ * Scheduling is safe from any thread and takes constant time: the request is queued and
+ * the wheel's own thread files it on its next tick. Scheduling a key again replaces its
+ * earlier deadline. The wheel can only see one turn ahead, so a later deadline waits in
+ * the furthest slot and is filed again when that slot comes round.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+final class ExpiryWheel {
+
+    private static final Logger LOG = getLogger(ExpiryWheel.class);
+
+    /**
+     * Decides what happens to a key when it comes due.
+     */
+    interface Handler {
+
+        /**
+         * @param key the key that is due
+         * @param now the current time in milliseconds
+         * @return time in milliseconds at which the key is next due, or -1 to forget it
+         */
+        long expire(String key, long now);
+    }
+
+    /**
+     * A request to schedule a key, waiting for the wheel's thread
+     */
+    private static final class Request {
+        private final String key;
+        private final long deadline;
+
+        private Request(String key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+    }
+
+    private final long tickMillis;
+    private final List<String>[] slots;
+    private final Handler handler;
+    private final Queue<Request> requests = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The tick each key is filed under. Only the wheel's thread touches this, the slots
+     * and {@link #lastTick}.
+     */
+    private final Map<String, Long> scheduled = new HashMap<>();
+    private long lastTick;
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * @param tickMillis length of a tick in milliseconds
+     * @param slots      number of ticks in one turn of the wheel
+     * @param handler    called for each key as it comes due
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    ExpiryWheel(long tickMillis, int slots, Handler handler) {
+        this.tickMillis = tickMillis;
+        this.slots = new List[slots];
+        for (int i = 0; i < slots; i++) {
+            this.slots[i] = new ArrayList<>();
+        }
+        this.handler = handler;
+        this.lastTick = System.currentTimeMillis() / tickMillis;
+    }
+
+    /**
+     * Start turning the wheel on a daemon thread.
+     */
+    synchronized void start() {
+        if (this.executor != null) {
+            return;
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleAtFixedRate(this::advance, this.tickMillis, this.tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Have a key come due at a time, replacing any earlier deadline for it.
+     *
+     * @param key      the key
+     * @param deadline time in milliseconds
+     */
+    void schedule(String key, long deadline) {
+        this.requests.add(new Request(key, deadline));
+    }
+
+    /**
+     * Run every tick up to now.
+     */
+    private void advance() {
+        try {
+            this.advance(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            // Keep the wheel turning
+            LOG.log(Level.WARNING, "Expiry tick failed", e);
+        }
+    }
+
+    /**
+     * File the waiting requests, then handle each key due by the given time.
+     *
+     * @param now the current time in milliseconds
+     */
+    void advance(long now) {
+        Request request;
+        while ((request = this.requests.poll()) != null) {
+            this.file(request.key, request.deadline, this.lastTick);
+        }
+        long nowTick = now / this.tickMillis;
+        // After a long pause every slot is due, but each only needs to be looked at once.
+        long first = Math.max(this.lastTick + 1, nowTick - this.slots.length + 1);
+        for (long tick = first; tick <= nowTick; tick++) {
+            List<String> slot = this.slots[(int) (tick % this.slots.length)];
+            if (slot.isEmpty()) {
+                continue;
+            }
+            List<String> due = new ArrayList<>(slot);
+            slot.clear();
+            for (String key : due) {
+                Long filed = this.scheduled.get(key);
+                if (filed == null || filed > nowTick) {
+                    // Scheduled again since, or waiting for a later turn of the wheel
+                    if (filed != null && filed % this.slots.length == tick % this.slots.length) {
+                        slot.add(key);
+                    }
+                    continue;
+                }
+                this.scheduled.remove(key);
+                long next = this.handler.expire(key, now);
+                if (next >= 0) {
+                    // Slots up to now have already been passed, so it must wait for a later one.
+                    this.file(key, next, nowTick);
+                }
+            }
+        }
+        this.lastTick = nowTick;
+    }
+
+    /**
+     * Put a key in the slot for its deadline. Only called on the wheel's thread.
+     *
+     * @param key      the key
+     * @param deadline time in milliseconds
+     * @param current  the last tick already handled
+     */
+    private void file(String key, long deadline, long current) {
+        long tick = Math.max(deadline / this.tickMillis, current + 1);
+        // The furthest slot the wheel can see without wrapping onto itself
+        tick = Math.min(tick, current + this.slots.length);
+        Long previous = this.scheduled.put(key, tick);
+        if (previous == null || previous % this.slots.length != tick % this.slots.length) {
+            this.slots[(int) (tick % this.slots.length)].add(key);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.Game;
+import com.webcheckers.model.GameCodec;
+import com.webcheckers.model.Pdn;
+import com.webcheckers.model.Replay;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.webcheckers.util.Attributes.*;
+
+/**
+ * An append-only file of finished {@Link Game}s, each written as its ID number followed
+ * by a {@Link GameCodec} record with its whole move log. Finished games leave the
+ * {@Link GameCenter}, so this is the only place they are kept.
+ * <p>
+ * Exporting reads the file one record at a time and writes each game as PDN before
+ * reading the next, so every finished game can be exported to one file however many
+ * there are. A record torn by a crash is only ever at the end, and is left out.
+ * </p>
+ * <p>
+ * Adding a game only writes it. The {@Link Journal} flushes the archive before each of
+ * its commits, so a game is on disk before the record removing it from the
+ * {@Link GameCenter} is, without forcing the file on a request thread.
+ * </p>
+ * <p>
+ * The file is indexed by reading just each record's ID and length, when the
+ * {@Link GameCenter} asks for the last ID in it at startup or else the first time a game
+ * is looked up, and games added after that are indexed as they are written. A game
+ * looked up is read from its offset. The games most recently added or looked up, and
+ * their {@Link Replay}s, are kept for up to {@Link Attributes#REPLAY_CACHE_GAMES} games
+ * at once, so a game that has just finished can be found even with no file.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public final class GameArchive implements Closeable, Flushable {
+    private static final Logger LOG = getLogger(GameArchive.class);
+
+    /**
+     * Bytes before a {@Link GameCodec} record's body: ID, length and CRC
+     */
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+
+    /**
+     * The archive, or null to keep nothing
+     */
+    private final File file;
+    private FileChannel channel;
+
+    /**
+     * True while games have been written but not forced to disk
+     */
+    private boolean dirty;
+
+    /**
+     * Offset of each game's record, once the archive has been opened
+     */
+    private final Map<Integer, Long> offsets = new ConcurrentHashMap<>();
+
+    /**
+     * Games most recently added or looked up, and replays most recently looked up, least
+     * recent first
+     */
+    private final Map<Integer, Game> games = recent();
+    private final Map<Integer, Replay> replays = recent();
+
+    /**
+     * @param path file holding the archive, or null to keep nothing
+     */
+    public GameArchive(String path) {
+        this.file = path == null ? null : new File(path);
+    }
+
+    /**
+     * @return a map that drops its least recently used entry past
+     * {@Link Attributes#REPLAY_CACHE_GAMES} entries
+     */
+    private static <V> Map<Integer, V> recent() {
+        return new LinkedHashMap<Integer, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, V> eldest) {
+                return this.size() > REPLAY_CACHE_GAMES;
+            }
+        };
+    }
+
+    /**
+     * Open the archive, indexing the records already in it and cutting off a record torn
+     * by a crash, so the next one is written where it can be found.
+     *
+     * @throws IOException if the archive cannot be opened
+     */
+    private void open() throws IOException {
+        if (this.channel != null) {
+            return;
+        }
+        FileChannel opened = FileChannel.open(this.file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = opened.size();
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES);
+        while (offset + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(opened, header, offset);
+            int id = header.getInt(0);
+            long end = offset + HEADER_BYTES + header.getInt(Integer.BYTES);
+            if (end > size || end <= offset + HEADER_BYTES) {
+                break;
+            }
+            this.offsets.put(id, offset);
+            offset = end;
+        }
+        if (offset < size) {
+            LOG.warning(String.format("Dropping %d bytes torn from the end of %s", size - offset, this.file));
+            opened.truncate(offset);
+        }
+        opened.position(offset);
+        this.channel = opened;
+    }
+
+    /**
+     * Add a finished {@Link Game}. It is forced to disk by the next {@Link #flush()}.
+     *
+     * @param id   ID number of the game
+     * @param game the game
+     */
+    public void add(int id, Game game) {
+        synchronized (this) {
+            this.games.put(id, game);
+        }
+        if (this.file == null) {
+            return;
+        }
+        byte[] encoded = GameCodec.encode(game);
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + encoded.length);
+        record.putInt(id).put(encoded).flip();
+        synchronized (this) {
+            try {
+                this.open();
+                long offset = this.channel.position();
+                while (record.hasRemaining()) {
+                    this.channel.write(record);
+                }
+                this.dirty = true;
+                this.offsets.put(id, offset);
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Cannot archive game", e);
+            }
+        }
+    }
+
+    /**
+     * @return the highest ID number of a game in the archive, or 0 if there is none or
+     * the archive cannot be opened
+     */
+    public int getLastID() {
+        if (this.file == null) {
+            return 0;
+        }
+        synchronized (this) {
+            try {
+                this.open();
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Cannot open game archive", e);
+                return 0;
+            }
+        }
+        int last = 0;
+        for (int id : this.offsets.keySet()) {
+            last = Math.max(last, id);
+        }
+        return last;
+    }
+
+    /**
+     * @param id ID number of a finished {@Link Game}
+     * @return the game's {@Link Replay}, or null if it is not in the archive
+     */
+    public Replay getReplay(int id) {
+        synchronized (this) {
+            Replay replay = this.replays.get(id);
+            if (replay != null) {
+                return replay;
+            }
+        }
+        Game game = this.getGame(id);
+        if (game == null) {
+            return null;
+        }
+        Replay replay = new Replay(game, REPLAY_KEYFRAME_PLIES);
+        synchronized (this) {
+            this.replays.put(id, replay);
+        }
+        return replay;
+    }
+
+    /**
+     * @param id ID number of a finished {@Link Game}
+     * @return the game, or null if it is not in the archive
+     */
+    public Game getGame(int id) {
+        FileChannel archive;
+        Long offset;
+        synchronized (this) {
+            Game game = this.games.get(id);
+            if (game != null || this.file == null) {
+                return game;
+            }
+            try {
+                this.open();
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Cannot open game archive", e);
+                return null;
+            }
+            archive = this.channel;
+            offset = this.offsets.get(id);
+        }
+        if (offset == null) {
+            return null;
+        }
+        Game game;
+        try {
+            game = read(archive, offset);
+        } catch (IOException e) {
+            LOG.warning(String.format("Cannot read archived game %d: %s", id, e.getMessage()));
+            return null;
+        }
+        synchronized (this) {
+            this.games.put(id, game);
+        }
+        return game;
+    }
+
+    /**
+     * Read the {@Link Game} whose record starts at an offset.
+     *
+     * @param archive the archive
+     * @param offset  offset of the record's ID
+     * @return the game
+     * @throws IOException if the record cannot be read or is corrupt
+     */
+    private static Game read(FileChannel archive, long offset) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        readFully(archive, length, offset + Integer.BYTES);
+        byte[] record = new byte[HEADER_BYTES - Integer.BYTES + length.getInt(0)];
+        readFully(archive, ByteBuffer.wrap(record), offset + Integer.BYTES);
+        return GameCodec.decode(record);
+    }
+
+    /**
+     * Fill a buffer from the archive, without moving where records are appended.
+     */
+    private static void readFully(FileChannel archive, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (archive.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Archived game cut short");
+            }
+        }
+    }
+
+    /**
+     * Write every archived {@Link Game} as PDN, in the order they finished.
+     *
+     * @param out where to write them
+     * @return number of games written
+     * @throws IOException if the archive cannot be read or the games cannot be written
+     */
+    public int export(Writer out) throws IOException {
+        return export(this.file, out);
+    }
+
+    /**
+     * Write every {@Link Game} in an archive file as PDN, in the order they finished.
+     *
+     * @param file the archive
+     * @param out  where to write them
+     * @return number of games written
+     * @throws IOException if the archive cannot be read or the games cannot be written
+     */
+    public static int export(File file, Writer out) throws IOException {
+        if (file == null || !file.exists()) {
+            return 0;
+        }
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                Game game;
+                try {
+                    // Skip the ID
+                    in.readInt();
+                    game = GameCodec.read(in);
+                } catch (EOFException end) {
+                    // The end of the archive, or a record torn by a crash
+                    break;
+                } catch (StreamCorruptedException e) {
+                    LOG.warning(String.format("Skipping game in %s: %s", file, e.getMessage()));
+                    continue;
+                }
+                Pdn.write(game, out);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Force the games added since the last flush to disk.
+     *
+     * @throws IOException if they cannot be forced
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        if (this.dirty) {
+            this.channel.force(false);
+            this.dirty = false;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.channel != null) {
+            this.flush();
+            this.channel.close();
+            this.channel = null;
+        }
+    }
+}
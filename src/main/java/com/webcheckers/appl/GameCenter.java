@@ -1,84 +1,526 @@
 package com.webcheckers.appl;
 
 import com.webcheckers.model.Game;
+import com.webcheckers.model.GameCodec;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Replay;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
-import static com.webcheckers.util.Attributes.GAME_LOG_FILE_PATH;
-import static com.webcheckers.util.Attributes.STORE_CLIENTS;
+import static com.webcheckers.util.Attributes.*;
 
 /**
- * Object that holds all games
+ * Object that holds all games. It is safe to share between request threads: games are
+ * kept in concurrent collections and ID numbers are handed out in order from 1, so no
+ * two games ever get the same one.
+ * <p>
+ * Games are stored in the {@Link Journal}: creating a game, each turn submitted and
+ * removing a game are each a small record, whatever the number of games.
+ * </p>
+ * <p>
+ * With {@Link Attributes#LAZY_RECOVERY}, recovering only indexes the stored games by ID,
+ * keeping each one's encoded record and the turns replayed for it since. A game is
+ * decoded the first time {@Link #getGame(int)} asks for it, and {@Link #warmUp()}
+ * decodes the rest on background threads, so the server can start serving before any
+ * game is decoded.
+ * </p>
  *
  * @author <a href="mailto:np9379@rit.edu">Nathan Page</a>
  * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
  */
-public class GameCenter {
+public class GameCenter implements Journal.Store {
+    private static final Logger LOG = getLogger(GameCenter.class);
+
     static final int EMPTY_GAME_KEY = 0;
 
-    private Map<Integer, Game> gameMap;
-    private List<Integer> resignList;
+    /**
+     * Told when a {@Link Game}'s players should look at it again. Called on the thread
+     * that made the change, once the change is stored.
+     */
+    public interface Listener {
+
+        /**
+         * @param id   ID number of a {@Link Game} whose other player is now to move
+         * @param game the game
+         */
+        void turnChanged(int id, Game game);
+
+        /**
+         * @param id     ID number of a {@Link Game} that has been resigned and removed
+         * @param game   the game
+         * @param player the {@Link Player} who resigned
+         */
+        void gameResigned(int id, Game game, Player player);
+
+        /**
+         * @param id   ID number of a {@Link Game} whose last turn has ended it
+         * @param game the game
+         */
+        void gameEnded(int id, Game game);
+    }
+
+    /**
+     * A game recovered but not yet decoded, with the turns replayed for it since
+     */
+    private static final class StoredGame {
+        private final byte[] record;
+
+        /**
+         * Each turn's ply, then the squares of its path
+         */
+        private final List<int[]> turns = new ArrayList<>();
+
+        private StoredGame(byte[] record) {
+            this.record = record;
+        }
+    }
+
+    private final Map<Integer, Game> gameMap = new ConcurrentHashMap<>();
+    private final Map<Integer, StoredGame> storedMap = new ConcurrentHashMap<>();
+    private final Set<Integer> resignSet = ConcurrentHashMap.newKeySet();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The next ID number to hand out
+     */
+    private final AtomicInteger nextID = new AtomicInteger(EMPTY_GAME_KEY + 1);
 
+    private final Journal journal;
+    private final GameArchive archive;
+
+    /**
+     * Instantiate a {@Linkplain GameCenter} that stores nothing.
+     */
     public GameCenter() {
+        this(new Journal(null), new GameArchive(null));
+    }
+
+    /**
+     * Instantiate a {@Linkplain GameCenter} kept in a {@Link Journal}. Its games are
+     * loaded when the journal is recovered.
+     *
+     * @param journal {@Link Journal} to keep games in
+     * @param archive {@Link GameArchive} to keep finished games in
+     */
+    public GameCenter(Journal journal, GameArchive archive) {
+        this.journal = journal;
+        this.archive = archive;
+        // Archive a game before the record removing it is stored
+        this.journal.addDependency(archive);
+        // Finished games keep their IDs in the archive after they leave the snapshot.
+        this.reserve(archive.getLastID());
+        this.journal.register(this, Journal.Type.GAME_CREATED, Journal.Type.TURN_SUBMITTED,
+                Journal.Type.GAME_REMOVED, Journal.Type.GAME_CHECKED_OUT);
+        if (!STORE_CLIENTS || !journal.isNew()) {
+            return;
+        }
         File readFile = new File(GAME_LOG_FILE_PATH);
+        if (!readFile.exists()) {
+            return;
+        }
         try (
                 ObjectInputStream ois = new ObjectInputStream(new FileInputStream(readFile))
         ) {
-            if (!STORE_CLIENTS) {
-                // Create new collections rather than reading
-                throw new IOException();
+            // Games stored before the journal
+            this.restoreLegacy(ois);
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            // Keep the file, in case it can be read by another version
+            LOG.log(Level.WARNING, "Cannot read " + readFile, e);
+            this.gameMap.clear();
+            this.resignSet.clear();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Each game is written with {@Link GameCodec}. Games not yet decoded are written as
+     * they were read, unless turns have been replayed for them.
+     */
+    @Override
+    public void snapshot(DataOutputStream out) throws IOException {
+        List<Integer> resigned = new ArrayList<>(this.resignSet);
+        out.writeInt(resigned.size());
+        for (int id : resigned) {
+            out.writeInt(id);
+        }
+        // Stored games first: one decoded meanwhile is then found in the game map.
+        Map<Integer, byte[]> records = new HashMap<>();
+        for (Map.Entry<Integer, StoredGame> entry : new HashMap<>(this.storedMap).entrySet()) {
+            if (entry.getValue().turns.isEmpty()) {
+                records.put(entry.getKey(), entry.getValue().record);
+            } else {
+                Game game = this.getGame(entry.getKey());
+                if (game != null) {
+                    records.put(entry.getKey(), GameCodec.encode(game));
+                }
             }
-            Object[] collections = (Object[]) ois.readObject();
-            this.gameMap = (Map<Integer, Game>) collections[0];
-            this.resignList = (List<Integer>) collections[1];
-        } catch (IOException | ClassNotFoundException e) {
-            // Make sure new collections exist
-            if(readFile.exists()) {
-                readFile.delete();
+        }
+        for (Map.Entry<Integer, Game> entry : new HashMap<>(this.gameMap).entrySet()) {
+            records.put(entry.getKey(), GameCodec.encode(entry.getValue()));
+        }
+        out.writeInt(records.size());
+        for (Map.Entry<Integer, byte[]> entry : records.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.write(entry.getValue());
+        }
+        // The next ID, so IDs of games that have since finished are not handed out again
+        out.writeInt(this.nextID.get());
+    }
+
+    /**
+     * {@inheritDoc}
+     * A game whose record is corrupt is left out, and the rest are still restored. A
+     * snapshot written before it held the next ID leaves it out.
+     */
+    @Override
+    public void restore(DataInputStream in) throws IOException {
+        for (int i = in.readInt(); i > 0; i--) {
+            int id = in.readInt();
+            this.resignSet.add(id);
+            this.reserve(id);
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            int id = in.readInt();
+            this.reserve(id);
+            this.recovered(id, GameCodec.readRecord(in));
+        }
+        if (in.available() >= Integer.BYTES) {
+            this.reserve(in.readInt() - 1);
+        }
+    }
+
+    /**
+     * Hold on to a recovered game's record, or with {@Link Attributes#LAZY_RECOVERY} off,
+     * decode it now.
+     *
+     * @param id     ID number of the game
+     * @param record the game's record from {@Link GameCodec}
+     */
+    private void recovered(int id, byte[] record) {
+        if (LAZY_RECOVERY) {
+            this.storedMap.put(id, new StoredGame(record));
+            return;
+        }
+        try {
+            this.gameMap.put(id, GameCodec.decode(record));
+        } catch (IOException e) {
+            LOG.severe(String.format("Cannot restore game %d: %s", id, e.getMessage()));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void restoreLegacy(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        Object[] collections = (Object[]) in.readObject();
+        for (Map.Entry<Integer, Game> entry : ((Map<Integer, Game>) collections[0]).entrySet()) {
+            if (entry.getValue() != null) {
+                this.gameMap.put(entry.getKey(), entry.getValue());
+                this.reserve(entry.getKey());
             }
-            this.gameMap = new HashMap<>();
-            this.resignList = new ArrayList<>();
         }
+        for (Integer id : (Collection<Integer>) collections[1]) {
+            this.resignSet.add(id);
+            this.reserve(id);
+        }
+    }
 
-        this.gameMap.put(EMPTY_GAME_KEY, null);
+    /**
+     * {@inheritDoc}
+     * A turn is only played on a game that has had exactly the turns before it, so a turn
+     * already in the snapshot is not played again.
+     */
+    @Override
+    public void replay(Journal.Type type, DataInputStream in) throws IOException {
+        int id = in.readInt();
+        switch (type) {
+            case GAME_CREATED:
+                byte[] record = GameCodec.readRecord(in);
+                if (!this.gameMap.containsKey(id) && !this.storedMap.containsKey(id)) {
+                    this.reserve(id);
+                    this.recovered(id, record);
+                }
+                break;
+            case TURN_SUBMITTED:
+                int ply = in.readInt();
+                int[] turn = new int[1 + in.readUnsignedByte()];
+                turn[0] = ply;
+                for (int i = 1; i < turn.length; i++) {
+                    turn[i] = in.readUnsignedByte();
+                }
+                this.storedMap.computeIfPresent(id, (key, stored) -> {
+                    // Played when the game is decoded
+                    stored.turns.add(turn);
+                    return stored;
+                });
+                Game played = this.gameMap.get(id);
+                if (played != null) {
+                    play(played, turn);
+                }
+                break;
+            case GAME_REMOVED:
+                this.reserve(id);
+                this.forget(id);
+                // Even with the game already gone: a snapshot can miss both the game and
+                // its resignation, and GAME_CHECKED_OUT still clears it afterwards.
+                if (in.readBoolean()) {
+                    this.resignSet.add(id);
+                }
+                break;
+            case GAME_CHECKED_OUT:
+                this.resignSet.remove(id);
+                break;
+            default:
+                break;
+        }
     }
 
     /**
-     * @param id   ID number of game to add.
-     * @param game {@Link Game} that is being added to GameCenter
-     * @return True, if added.
+     * Play a replayed turn, if the game has had exactly the turns before it.
+     *
+     * @param game the game
+     * @param turn the turn's ply, then the squares of its path
      */
-    public boolean addGame(int id, Game game) {
-        if (gameMap.containsKey(id)) {
-            return false;
+    private static void play(Game game, int[] turn) {
+        synchronized (game) {
+            if (game.getPly() == turn[0]) {
+                game.playTurn(Arrays.copyOfRange(turn, 1, turn.length));
+            }
         }
-        gameMap.put(id, game);
-        this.log();
-        return true;
     }
 
+    /**
+     * Drop a game, whether it has been decoded or not.
+     *
+     * @param id ID number of the game
+     * @return True, if there was a game to drop
+     */
+    private boolean forget(int id) {
+        // Stored first: a game decoded in between is then still found in the game map.
+        boolean stored = this.storedMap.remove(id) != null;
+        return this.gameMap.remove(id) != null || stored;
+    }
+
+    /**
+     * Make sure an ID number that is already in use is never handed out again.
+     *
+     * @param id ID number in use
+     */
+    private void reserve(int id) {
+        this.nextID.accumulateAndGet(id + 1, Math::max);
+    }
+
+    /**
+     * @param game {@Link Game} that is being added to GameCenter
+     * @return The ID number given to the game.
+     */
+    public int addGame(Game game) {
+        int id = this.nextID.getAndIncrement();
+        this.gameMap.put(id, game);
+        this.created(id, game);
+        return id;
+    }
+
+    /**
+     * Record a new {@Link Game} in the {@Link Journal}.
+     *
+     * @param id   ID number of the game
+     * @param game the game
+     */
+    private void created(int id, Game game) {
+        byte[] record = GameCodec.encode(game);
+        this.journal.append(Journal.Type.GAME_CREATED, out -> {
+            out.writeInt(id);
+            out.write(record);
+        });
+    }
+
+    /**
+     * Record the turn just submitted in a {@Link Game}. Call while holding the game's
+     * lock, straight after the turn is submitted, so turns are recorded in order.
+     *
+     * @param id   ID number of the game
+     * @param game the game
+     * @return ticket to pass to {@Link #awaitStored(long)} once the game's lock is let go
+     */
+    public long turnSubmitted(int id, Game game) {
+        int ply = game.getPly() - 1;
+        int[] path = game.getLastTurn();
+        return this.journal.enqueue(Journal.Type.TURN_SUBMITTED, out -> {
+            out.writeInt(id);
+            out.writeInt(ply);
+            out.writeByte(path.length);
+            for (int square : path) {
+                out.writeByte(square);
+            }
+        });
+    }
+
+    /**
+     * @param id ID number of the game
+     * @return the {@Link Game}, decoded now if it has not been yet, or null if there is none
+     */
     public Game getGame(int id) {
-        return gameMap.get(id);
+        Game game = this.gameMap.get(id);
+        if (game == null && !this.storedMap.isEmpty()) {
+            this.storedMap.computeIfPresent(id, (key, stored) -> {
+                try {
+                    Game decoded = GameCodec.decode(stored.record);
+                    for (int[] turn : stored.turns) {
+                        play(decoded, turn);
+                    }
+                    this.gameMap.putIfAbsent(key, decoded);
+                } catch (IOException e) {
+                    LOG.severe(String.format("Cannot restore game %d: %s", key, e.getMessage()));
+                }
+                return null;
+            });
+            game = this.gameMap.get(id);
+        }
+        return game;
+    }
+
+    /**
+     * Decode every game recovered but not yet decoded, on background threads, so that
+     * requests seldom have to wait for it.
+     */
+    public void warmUp() {
+        List<Integer> ids = new ArrayList<>(this.storedMap.keySet());
+        if (ids.isEmpty()) {
+            return;
+        }
+        int threads = Math.min(RECOVERY_THREADS, ids.size());
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "GameCenter warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        AtomicInteger running = new AtomicInteger(threads);
+        for (int i = 0; i < threads; i++) {
+            List<Integer> slice = ids.subList(ids.size() * i / threads, ids.size() * (i + 1) / threads);
+            pool.execute(() -> {
+                for (int id : slice) {
+                    this.getGame(id);
+                }
+                if (running.decrementAndGet() == 0) {
+                    LOG.info(String.format("Decoded %d games in %d ms", ids.size(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+                }
+            });
+        }
+        pool.shutdown();
+    }
+
+    /**
+     * @param id ID number of a finished {@Link Game}
+     * @return the game from the {@Link GameArchive}, or null if it is still being played
+     * or there is none
+     */
+    public Game getFinishedGame(int id) {
+        return this.archive.getGame(id);
+    }
+
+    /**
+     * @param id ID number of a finished {@Link Game}
+     * @return the game's {@Link Replay}, or null if it is still being played or there is none
+     */
+    public Replay getReplay(int id) {
+        return this.archive.getReplay(id);
     }
 
     /**
-     * Remove a {@Link Game} from the {@Linkplain GameCenter}
+     * Wait for a turn to be stored, as long as the {@Link Journal} says requests must.
+     *
+     * @param ticket ticket from {@Link #turnSubmitted(int, Game)}
+     */
+    public void awaitStored(long ticket) {
+        this.journal.await(ticket);
+    }
+
+    /**
+     * Resign a {@Link Game} for one of its players and remove it from the
+     * {@Linkplain GameCenter}.
+     *
+     * @param id     The id of the {@Link Game}
+     * @param player The {@Link Player} resigning.
+     */
+    public void resignGame(int id, Player player) {
+        Game game = this.getGame(id);
+        if (game != null) {
+            game.resign(player);
+        }
+        this.removeGame(id, true);
+        if (game != null) {
+            for (Listener listener : this.listeners) {
+                listener.gameResigned(id, game, player);
+            }
+        }
+    }
+
+    /**
+     * @param listener {@Link Listener} to tell as games change
+     */
+    public void addListener(Listener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Tell {@Link Listener}s that a turn has been played and stored: either the game is
+     * over or the other player is now to move. Call after {@Link #awaitStored(long)}.
+     *
+     * @param id   ID number of the game
+     * @param game the game
+     */
+    public void turnPlayed(int id, Game game) {
+        boolean over = game.isOver();
+        for (Listener listener : this.listeners) {
+            if (over) {
+                listener.gameEnded(id, game);
+            } else {
+                listener.turnChanged(id, game);
+            }
+        }
+    }
+
+    /**
+     * Remove a finished {@Link Game} from the {@Linkplain GameCenter}, keeping it in the
+     * {@Link GameArchive}.
      *
      * @param id     The id of the {@Link Game}
      * @param resign True if this is the result of a {@Link Player} resignation.
      */
     public void removeGame(int id, boolean resign) {
-        if (id != GameCenter.EMPTY_GAME_KEY && this.gameMap.containsKey(id)) {
-            this.gameMap.remove(id);
-            if (resign) {
-                this.resignList.add(id);
-            }
+        Game game = this.getGame(id);
+        if (!this.forget(id)) {
+            return;
         }
-        this.log();
+        if (game != null) {
+            this.archive.add(id, game);
+        }
+        if (resign) {
+            this.resignSet.add(id);
+        }
+        this.journal.append(Journal.Type.GAME_REMOVED, out -> {
+            out.writeInt(id);
+            out.writeBoolean(resign);
+        });
     }
 
     /**
@@ -88,26 +530,10 @@ public class GameCenter {
      * @return True, if the resignation ID is found in the {@Linkplain GameCenter}
      */
     public boolean checkout(int id) {
-        if (this.resignList.contains(id)) {
-            this.resignList.remove(new Integer(id));
-            this.log();
+        if (this.resignSet.remove(id)) {
+            this.journal.append(Journal.Type.GAME_CHECKED_OUT, out -> out.writeInt(id));
             return true;
         }
         return false;
     }
-
-    /**
-     * Log the maps to {@Link File}.
-     */
-    public void log() {
-        if (STORE_CLIENTS) {
-            try (
-                    ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(new File(GAME_LOG_FILE_PATH)))
-            ) {
-                oos.writeObject(new Object[]{this.gameMap, this.resignList});
-                oos.flush();
-            } catch (IOException ignored) {
-            }
-        }
-    }
 }
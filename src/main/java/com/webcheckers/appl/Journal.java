@@ -0,0 +1,994 @@
+package com.webcheckers.appl;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import static com.webcheckers.util.Attributes.*;
+
+/**
+ * An append-only journal of the changes made to the server's state, so a change costs
+ * one small write however much state there is.
+ * <p>
+ * Each change is a small typed record appended through a {@Linkplain FileChannel} to the
+ * current segment file. Each record is framed by its length and a CRC, so a record torn
+ * by a crash is found and dropped on recovery.
+ * </p>
+ * <p>
+ * Requests never touch the disk themselves. They put records on a bounded queue, and a
+ * single writer thread takes everything queued within a commit window and writes it
+ * with one write and one fsync. How long a request waits depends on the
+ * {@Link Durability} mode. {@Link #getStats()} reports how the writer is keeping up.
+ * </p>
+ * <p>
+ * Once enough records have been written, a background thread compacts the journal: it
+ * starts a new segment, writes a snapshot of every {@Link Store} and deletes the segments
+ * the snapshot covers. On startup, {@Link #recover()} loads the snapshot and replays the
+ * segments written after it.
+ * </p>
+ * <p>
+ * The snapshot is taken while requests carry on, so it may already hold some of the
+ * changes recorded in the newer segments. Replaying a record must leave the same state
+ * whether or not its change is already there.
+ * </p>
+ * <p>
+ * A journal made without a directory stores nothing.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public final class Journal implements Closeable {
+
+    private static final Logger LOG = getLogger(Journal.class);
+
+    private static final String SNAPSHOT_FILE = "snapshot.dat";
+    private static final String CORRUPT_SUFFIX = ".corrupt-";
+
+    /**
+     * First bytes of a snapshot, and of a snapshot written with Java serialization
+     */
+    private static final int SNAPSHOT_MAGIC = 0x57434A53;
+    private static final int LEGACY_MAGIC = 0xACED;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final String SEGMENT_FORMAT = "journal-%08d.dat";
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile("journal-(\\d+)\\.dat");
+
+    /**
+     * Bytes before each record's type: its length and CRC
+     */
+    private static final int HEADER_BYTES = 8;
+
+    /**
+     * Largest record read back. Anything claiming to be longer is a torn write.
+     */
+    private static final int MAX_RECORD_BYTES = 1 << 16;
+
+    /**
+     * Kinds of record
+     */
+    public enum Type {
+        PLAYER_SIGNED_IN, PLAYER_SIGNED_OUT, PLAYER_MARKED,
+        CLIENT_SIGNED_IN, CLIENT_SIGNED_OUT, CLIENT_EXPIRED,
+        GAME_CREATED, TURN_SUBMITTED, GAME_REMOVED, GAME_CHECKED_OUT
+    }
+
+    /**
+     * When a request that appends a record may carry on
+     */
+    public enum Durability {
+        /**
+         * Once its record is on disk. Each record is written and forced on its own.
+         */
+        REQUEST,
+        /**
+         * Once its record is on disk. Records queued within a commit window are forced
+         * together.
+         */
+        GROUP,
+        /**
+         * As soon as its record is queued. Records are still forced once per commit
+         * window, so a crash loses at most the last window.
+         */
+        ASYNC
+    }
+
+    /**
+     * Durability of a journal made without choosing one
+     */
+    public static final Durability DEFAULT_DURABILITY = Durability.GROUP;
+
+    /**
+     * Part of the server whose state is kept in the journal.
+     */
+    public interface Store {
+
+        /**
+         * Write the whole state, as it is now, to a snapshot.
+         *
+         * @param out snapshot being written
+         * @throws IOException if the snapshot cannot be written
+         */
+        void snapshot(DataOutputStream out) throws IOException;
+
+        /**
+         * Put back the state written by {@Link #snapshot(DataOutputStream)}.
+         *
+         * @param in snapshot being read
+         * @throws IOException if the snapshot cannot be read
+         */
+        void restore(DataInputStream in) throws IOException;
+
+        /**
+         * Put back state written with Java serialization, from before snapshots were
+         * binary.
+         *
+         * @param in snapshot or old log file being read
+         * @throws IOException            if it cannot be read
+         * @throws ClassNotFoundException if it holds an unknown class
+         */
+        void restoreLegacy(ObjectInputStream in) throws IOException, ClassNotFoundException;
+
+        /**
+         * Apply a record read back from the journal.
+         *
+         * @param type kind of record
+         * @param in   the record's body
+         * @throws IOException if the body cannot be read
+         */
+        void replay(Type type, DataInputStream in) throws IOException;
+    }
+
+    /**
+     * Writes the body of a record.
+     */
+    public interface Body {
+
+        /**
+         * @param out stream the body is written to
+         * @throws IOException never, as the body is written to memory
+         */
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * A framed record waiting for the writer, or with no buffer, the writer's signal to stop
+     */
+    private static final class Pending {
+        private final ByteBuffer buffer;
+        private final long sequence;
+
+        private Pending(ByteBuffer buffer, long sequence) {
+            this.buffer = buffer;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * How the writer is keeping up. Counts are since the journal was recovered.
+     */
+    public static final class Stats {
+        private final Durability durability;
+        private final long commits;
+        private final long records;
+        private final long bytes;
+        private final double commitsPerSecond;
+        private final double meanBatch;
+        private final int maxBatch;
+        private final int queueDepth;
+        private final int queueCapacity;
+
+        private Stats(Journal journal) {
+            this.durability = journal.durability;
+            this.commits = journal.commits;
+            this.records = journal.written;
+            this.bytes = journal.bytes;
+            this.commitsPerSecond = journal.commitsPerSecond();
+            this.meanBatch = this.commits == 0 ? 0 : (double) this.records / this.commits;
+            this.maxBatch = journal.maxBatch;
+            this.queueDepth = journal.queue.size();
+            this.queueCapacity = JOURNAL_QUEUE_CAPACITY;
+        }
+
+        public Durability getDurability() {
+            return durability;
+        }
+
+        /**
+         * @return number of writes forced to disk
+         */
+        public long getCommits() {
+            return commits;
+        }
+
+        /**
+         * @return number of records written
+         */
+        public long getRecords() {
+            return records;
+        }
+
+        /**
+         * @return number of bytes written
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return commits made in the last whole second
+         */
+        public double getCommitsPerSecond() {
+            return commitsPerSecond;
+        }
+
+        /**
+         * @return mean number of records written by a commit
+         */
+        public double getMeanBatch() {
+            return meanBatch;
+        }
+
+        /**
+         * @return most records written by one commit
+         */
+        public int getMaxBatch() {
+            return maxBatch;
+        }
+
+        /**
+         * @return number of records waiting for the writer
+         */
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return String.format("%s: %d commits (%.1f/s), %d records, %d bytes, batches of %.1f (max %d), queue %d/%d",
+                    durability, commits, commitsPerSecond, records, bytes, meanBatch, maxBatch, queueDepth, queueCapacity);
+        }
+    }
+
+    private final File directory;
+    private final Durability durability;
+    private final List<Store> stores = new ArrayList<>();
+    private final Map<Type, Store> owners = new EnumMap<>(Type.class);
+
+    /**
+     * Files that records refer to, flushed before each commit
+     */
+    private final List<Flushable> dependencies = new CopyOnWriteArrayList<>();
+
+    private final BlockingQueue<Pending> queue = new ArrayBlockingQueue<>(JOURNAL_QUEUE_CAPACITY);
+
+    /**
+     * Sequence number of the last record queued. Records are queued in order under
+     * {@Link #queueLock}, which also guards {@Link #writing}.
+     */
+    private long queued;
+    private boolean writing;
+    private final Object queueLock = new Object();
+
+    /**
+     * Sequence number of the last record on disk. Waiters are woken through
+     * {@Link #commitLock}.
+     */
+    private volatile long committed;
+    private final Object commitLock = new Object();
+    private Thread writer;
+
+    /**
+     * Counts kept by the writer thread for {@Link Stats}
+     */
+    private volatile long commits;
+    private volatile long written;
+    private volatile long bytes;
+    private volatile int maxBatch;
+    private volatile long secondStart = System.nanoTime();
+    private volatile int secondCommits;
+    private volatile double lastSecondCommits;
+
+    /**
+     * Segment records are appended to and its number. Guarded by this journal's lock.
+     */
+    private FileChannel channel;
+    private long segment;
+    private int records;
+
+    /**
+     * True while the current segment ends in a failed write that could not be cut off
+     */
+    private boolean torn;
+
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param directory directory holding the snapshot and segments, or null to store nothing
+     */
+    public Journal(String directory) {
+        this(directory, DEFAULT_DURABILITY);
+    }
+
+    /**
+     * @param directory  directory holding the snapshot and segments, or null to store nothing
+     * @param durability when requests appending records may carry on
+     */
+    public Journal(String directory, Durability durability) {
+        this.directory = directory == null ? null : new File(directory);
+        this.durability = durability;
+    }
+
+    /**
+     * @return True, if nothing has been stored yet: this journal stores nothing, or it
+     * has neither a snapshot nor a segment.
+     */
+    public boolean isNew() {
+        return this.directory == null
+                || (!new File(this.directory, SNAPSHOT_FILE).exists() && this.segments().isEmpty());
+    }
+
+    /**
+     * Add a {@Link Store}. Every store must be added, always in the same order, before
+     * {@Link #recover()}.
+     *
+     * @param store the store
+     * @param types kinds of record the store replays
+     */
+    public synchronized void register(Store store, Type... types) {
+        this.stores.add(store);
+        for (Type type : types) {
+            this.owners.put(type, store);
+        }
+    }
+
+    /**
+     * Add a file that records refer to, such as one a record says something was moved to.
+     * It is flushed before each commit, so it is on disk before any record that refers to
+     * it.
+     *
+     * @param dependency the file
+     */
+    public void addDependency(Flushable dependency) {
+        this.dependencies.add(dependency);
+    }
+
+    /**
+     * Load the snapshot, replay the segments written after it and open a new segment to
+     * append to.
+     */
+    public synchronized void recover() {
+        if (this.directory == null) {
+            return;
+        }
+        if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+            LOG.warning("Cannot create journal directory " + this.directory);
+            return;
+        }
+        File snapshotFile = new File(this.directory, SNAPSHOT_FILE);
+        long first = snapshotFile.exists() ? this.readSnapshot(snapshotFile) : 0;
+        TreeMap<Long, File> segments = this.segments();
+        long last = first;
+        int replayed = 0;
+        for (Map.Entry<Long, File> entry : segments.tailMap(first).entrySet()) {
+            replayed += this.replay(entry.getValue());
+            last = entry.getKey();
+        }
+        try {
+            this.open(last + 1);
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Cannot open journal segment", e);
+            return;
+        }
+        this.records = replayed;
+        synchronized (this.queueLock) {
+            this.writing = true;
+        }
+        this.writer = new Thread(this::write, "journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        if (replayed > 0 || !snapshotFile.exists()) {
+            this.compactLater();
+        }
+    }
+
+    /**
+     * Restore every {@Link Store} from a snapshot. The snapshot is a header, then a
+     * section for each store framed by its length and a CRC. A store whose section is
+     * corrupt starts empty, and the others are still restored. Whenever anything cannot be
+     * read, a copy of the snapshot is kept beside it rather than lost at the next
+     * compaction.
+     *
+     * @param file the snapshot
+     * @return number of the first segment written after the snapshot, or 0 if unknown
+     */
+    private long readSnapshot(File file) {
+        boolean whole = true;
+        long first = 0;
+        try (
+                DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))
+        ) {
+            int magic = in.readInt();
+            if (magic >>> 16 == LEGACY_MAGIC) {
+                return this.readLegacySnapshot(file);
+            }
+            if (magic != SNAPSHOT_MAGIC) {
+                throw new StreamCorruptedException("Not a journal snapshot");
+            }
+            int version = in.readUnsignedShort();
+            if (version != SNAPSHOT_VERSION) {
+                throw new StreamCorruptedException("Unknown snapshot version " + version);
+            }
+            first = in.readLong();
+            CRC32 crc = new CRC32();
+            for (Store store : this.stores) {
+                int length = in.readInt();
+                long checksum = in.readInt() & 0xFFFFFFFFL;
+                byte[] section = new byte[length];
+                in.readFully(section);
+                crc.reset();
+                crc.update(section, 0, length);
+                if (crc.getValue() != checksum) {
+                    LOG.severe("Journal snapshot section for " + store.getClass().getSimpleName() + " fails its CRC");
+                    whole = false;
+                    continue;
+                }
+                store.restore(new DataInputStream(new ByteArrayInputStream(section)));
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.log(Level.SEVERE, "Cannot read journal snapshot", e);
+            whole = false;
+        }
+        if (!whole) {
+            this.keepAside(file);
+        }
+        return first;
+    }
+
+    /**
+     * Restore every {@Link Store} from a snapshot written with Java serialization.
+     *
+     * @param file the snapshot
+     * @return number of the first segment written after the snapshot, or 0 if unknown
+     */
+    private long readLegacySnapshot(File file) {
+        try (
+                ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))
+        ) {
+            long first = ois.readLong();
+            for (Store store : this.stores) {
+                store.restoreLegacy(ois);
+            }
+            return first;
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            LOG.log(Level.SEVERE, "Cannot read journal snapshot", e);
+            this.keepAside(file);
+            return 0;
+        }
+    }
+
+    /**
+     * Keep a copy of a file that could not be read in full.
+     *
+     * @param file the file
+     */
+    private void keepAside(File file) {
+        File copy = new File(file.getPath() + CORRUPT_SUFFIX + System.currentTimeMillis());
+        try {
+            Files.copy(file.toPath(), copy.toPath());
+            LOG.severe("Kept a copy of " + file + " as " + copy);
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Cannot keep a copy of " + file, e);
+        }
+    }
+
+    /**
+     * Replay every whole record in a segment, stopping at the first torn one.
+     *
+     * @param file the segment
+     * @return number of records replayed
+     */
+    private int replay(File file) {
+        int count = 0;
+        long valid = 0;
+        CRC32 crc = new CRC32();
+        try (
+                DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))
+        ) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException end) {
+                    break;
+                }
+                long checksum = in.readInt() & 0xFFFFFFFFL;
+                if (length < 1 || length > MAX_RECORD_BYTES) {
+                    break;
+                }
+                byte[] record = new byte[length];
+                in.readFully(record);
+                crc.reset();
+                crc.update(record, 0, length);
+                if (crc.getValue() != checksum || (record[0] & 0xFF) >= Type.values().length) {
+                    break;
+                }
+                Type type = Type.values()[record[0]];
+                Store owner = this.owners.get(type);
+                if (owner != null) {
+                    owner.replay(type, new DataInputStream(new ByteArrayInputStream(record, 1, length - 1)));
+                }
+                valid += HEADER_BYTES + length;
+                count++;
+            }
+        } catch (EOFException torn) {
+            // Crashed part way through the last record
+        } catch (IOException | RuntimeException e) {
+            LOG.log(Level.WARNING, "Cannot replay journal segment " + file, e);
+        }
+        if (valid < file.length()) {
+            LOG.warning(String.format("Dropping %d bytes torn from the end of %s", file.length() - valid, file));
+        }
+        return count;
+    }
+
+    /**
+     * Append a record to the journal, waiting as long as the {@Link Durability} mode says.
+     *
+     * @param type kind of record
+     * @param body writes the record's body
+     */
+    public void append(Type type, Body body) {
+        this.await(this.enqueue(type, body));
+    }
+
+    /**
+     * Queue a record without waiting for it to be written. Use this while holding a lock,
+     * so records are queued in the order their changes were made, then call
+     * {@Link #await(long)} once the lock is let go.
+     *
+     * @param type kind of record
+     * @param body writes the record's body
+     * @return the record's sequence number, or 0 if nothing is stored
+     */
+    public long enqueue(Type type, Body body) {
+        if (this.directory == null) {
+            return 0;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            // Room for the header, filled in below
+            out.writeLong(0);
+            out.writeByte(type.ordinal());
+            body.write(out);
+        } catch (IOException impossible) {
+            throw new UncheckedIOException(impossible);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        int length = buffer.limit() - HEADER_BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_BYTES, length);
+        buffer.putInt(0, length);
+        buffer.putInt(4, (int) crc.getValue());
+
+        synchronized (this.queueLock) {
+            if (!this.writing) {
+                // Not recovered yet, or closed
+                return 0;
+            }
+            this.putUninterruptibly(new Pending(buffer, ++this.queued));
+            return this.queued;
+        }
+    }
+
+    /**
+     * Wait as long as the {@Link Durability} mode says for a record to be written.
+     *
+     * @param sequence the record's sequence number from {@Link #enqueue(Type, Body)}
+     */
+    public void await(long sequence) {
+        if (this.durability == Durability.ASYNC || this.committed >= sequence) {
+            return;
+        }
+        boolean interrupted = false;
+        synchronized (this.commitLock) {
+            while (this.committed < sequence && this.writer.isAlive()) {
+                try {
+                    this.commitLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queue a record, waiting for room if the queue is full.
+     *
+     * @param pending the record
+     */
+    private void putUninterruptibly(Pending pending) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                this.queue.put(pending);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The writer thread: take a batch of records, commit it and repeat until told to stop.
+     */
+    private void write() {
+        List<Pending> batch = new ArrayList<>();
+        long window = TimeUnit.MILLISECONDS.toNanos(JOURNAL_COMMIT_WINDOW);
+        boolean open = true;
+        try {
+            while (open) {
+                batch.add(this.queue.take());
+                if (this.durability != Durability.REQUEST) {
+                    long deadline = System.nanoTime() + window;
+                    while (batch.size() < JOURNAL_QUEUE_CAPACITY && batch.get(batch.size() - 1).buffer != null) {
+                        long left = deadline - System.nanoTime();
+                        Pending next = left > 0 ? this.queue.poll(left, TimeUnit.NANOSECONDS) : this.queue.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+                open = this.commit(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            LOG.warning("Journal writer interrupted");
+        } finally {
+            synchronized (this.commitLock) {
+                this.commitLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Write a batch of records with one write and force them to disk. A batch that cannot
+     * be written is retried until it is, and only then counted as committed.
+     *
+     * @param batch records in the order they were queued
+     * @return False, if the batch ends with the signal to stop, or the journal was closed
+     * before the batch could be written
+     * @throws InterruptedException if interrupted while waiting to retry
+     */
+    private boolean commit(List<Pending> batch) throws InterruptedException {
+        Pending last = batch.get(batch.size() - 1);
+        int count = last.buffer == null ? batch.size() - 1 : batch.size();
+        ByteBuffer[] buffers = new ByteBuffer[count];
+        long length = 0;
+        for (int i = 0; i < count; i++) {
+            buffers[i] = batch.get(i).buffer;
+            length += buffers[i].remaining();
+        }
+        boolean compact = false;
+        if (count > 0) {
+            while (true) {
+                try {
+                    if (!this.append(buffers, length)) {
+                        // Closed while the batch could not be written; its waiters are woken
+                        // by the writer stopping, not told it is on disk.
+                        LOG.severe(String.format("Journal closed with %d records unwritten", count));
+                        return false;
+                    }
+                    break;
+                } catch (IOException e) {
+                    LOG.log(Level.WARNING, "Cannot append to journal, retrying", e);
+                    for (ByteBuffer buffer : buffers) {
+                        buffer.rewind();
+                    }
+                    Thread.sleep(JOURNAL_RETRY_MILLIS);
+                }
+            }
+            synchronized (this) {
+                this.records += count;
+                compact = this.records >= JOURNAL_COMPACT_RECORDS;
+            }
+            this.counted(count, length);
+        }
+        this.committed = batch.get(count > 0 ? count - 1 : 0).sequence;
+        synchronized (this.commitLock) {
+            this.commitLock.notifyAll();
+        }
+        if (compact) {
+            this.compactLater();
+        }
+        return last.buffer != null;
+    }
+
+    /**
+     * Write records to the current segment and force them to disk, after flushing every
+     * dependency. If that fails, what
+     * was written is cut back off the segment, or failing that, later records go to a new
+     * segment, so a torn record never hides the records after it from recovery.
+     *
+     * @param buffers the framed records
+     * @param length  total bytes in them
+     * @return False, if the journal has been closed
+     * @throws IOException if the records could not be written
+     */
+    private synchronized boolean append(ByteBuffer[] buffers, long length) throws IOException {
+        if (this.channel == null) {
+            return false;
+        }
+        for (Flushable dependency : this.dependencies) {
+            dependency.flush();
+        }
+        if (this.torn) {
+            this.torn = !this.roll();
+            if (this.torn) {
+                throw new IOException("Cannot start a new segment after a torn write");
+            }
+        }
+        long start = -1;
+        try {
+            start = this.channel.size();
+            long left = length;
+            while (left > 0) {
+                left -= this.channel.write(buffers);
+            }
+            this.channel.force(false);
+            return true;
+        } catch (IOException e) {
+            try {
+                if (start < 0) {
+                    throw e;
+                }
+                this.channel.truncate(start);
+            } catch (IOException truncate) {
+                this.torn = !this.roll();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Switch appends to a new segment after the current one failed, closing the old one
+     * without forcing it.
+     *
+     * @return False, if the old segment is still the current one
+     */
+    private boolean roll() {
+        FileChannel failed = this.channel;
+        this.channel = null;
+        try {
+            this.open(this.segment + 1);
+        } catch (IOException e) {
+            // Keep the old segment, and roll again at the next failure
+            this.channel = failed;
+            LOG.log(Level.WARNING, "Cannot start a new journal segment", e);
+            return false;
+        }
+        try {
+            failed.close();
+        } catch (IOException ignored) {
+            // Nothing more will be written to it
+        }
+        return true;
+    }
+
+    /**
+     * Count a commit for {@Link Stats}. Only the writer thread calls this.
+     *
+     * @param count  number of records written
+     * @param length number of bytes written
+     */
+    private void counted(int count, long length) {
+        this.commits++;
+        this.written += count;
+        this.bytes += length;
+        this.maxBatch = Math.max(this.maxBatch, count);
+        long now = System.nanoTime();
+        long elapsed = now - this.secondStart;
+        if (elapsed >= TimeUnit.SECONDS.toNanos(1)) {
+            this.lastSecondCommits = this.secondCommits * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+            this.secondCommits = 0;
+            this.secondStart = now;
+        }
+        this.secondCommits++;
+    }
+
+    /**
+     * @return commits made in the last whole second, or 0 if the writer has been idle since
+     */
+    private double commitsPerSecond() {
+        long elapsed = System.nanoTime() - this.secondStart;
+        if (elapsed >= TimeUnit.SECONDS.toNanos(2)) {
+            return 0;
+        }
+        if (elapsed >= TimeUnit.SECONDS.toNanos(1)) {
+            return this.secondCommits * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        }
+        return this.lastSecondCommits;
+    }
+
+    /**
+     * @return how the writer is keeping up
+     */
+    public Stats getStats() {
+        return new Stats(this);
+    }
+
+    /**
+     * Compact the journal on the background thread, unless it is already being compacted.
+     */
+    private void compactLater() {
+        if (this.compacting.compareAndSet(false, true)) {
+            this.compactor.execute(() -> {
+                try {
+                    this.compact();
+                } catch (IOException | RuntimeException e) {
+                    LOG.log(Level.WARNING, "Cannot compact journal", e);
+                } finally {
+                    this.compacting.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Start a new segment, write a binary snapshot of every {@Link Store} and delete the
+     * segments before the new one. Records appended while the snapshot is written go to
+     * the new segment, so none are lost whether or not the snapshot already holds their
+     * changes.
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    private void compact() throws IOException {
+        long first;
+        synchronized (this) {
+            if (this.channel == null) {
+                return;
+            }
+            first = this.segment + 1;
+            this.open(first);
+            this.records = 0;
+            this.torn = false;
+        }
+        File snapshotFile = new File(this.directory, SNAPSHOT_FILE);
+        File tempFile = new File(this.directory, SNAPSHOT_FILE + ".tmp");
+        try (
+                FileOutputStream fos = new FileOutputStream(tempFile);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))
+        ) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeShort(SNAPSHOT_VERSION);
+            out.writeLong(first);
+            CRC32 crc = new CRC32();
+            for (Store store : this.stores) {
+                ByteArrayOutputStream section = new ByteArrayOutputStream();
+                store.snapshot(new DataOutputStream(section));
+                byte[] bytes = section.toByteArray();
+                crc.reset();
+                crc.update(bytes, 0, bytes.length);
+                out.writeInt(bytes.length);
+                out.writeInt((int) crc.getValue());
+                out.write(bytes);
+            }
+            out.flush();
+            fos.getFD().sync();
+        }
+        Files.move(tempFile.toPath(), snapshotFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (File file : this.segments().headMap(first).values()) {
+            if (!file.delete()) {
+                LOG.warning("Cannot delete journal segment " + file);
+            }
+        }
+    }
+
+    /**
+     * Switch appends to a new segment, forcing the old one to disk.
+     *
+     * @param number number of the new segment
+     * @throws IOException if the new segment cannot be opened
+     */
+    private void open(long number) throws IOException {
+        FileChannel next = FileChannel.open(new File(this.directory, String.format(SEGMENT_FORMAT, number)).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (this.channel != null) {
+            this.channel.force(false);
+            this.channel.close();
+        }
+        this.channel = next;
+        this.segment = number;
+    }
+
+    /**
+     * @return every segment file, by number
+     */
+    private TreeMap<Long, File> segments() {
+        TreeMap<Long, File> segments = new TreeMap<>();
+        File[] files = this.directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Matcher matcher = SEGMENT_PATTERN.matcher(file.getName());
+                if (matcher.matches()) {
+                    segments.put(Long.parseLong(matcher.group(1)), file);
+                }
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Write every record already queued, force the current segment to disk and stop
+     * appending.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this.queueLock) {
+            if (!this.writing) {
+                return;
+            }
+            this.writing = false;
+            this.putUninterruptibly(new Pending(null, this.queued));
+        }
+        try {
+            this.writer.join(TimeUnit.SECONDS.toMillis(JOURNAL_CLOSE_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.compactor.shutdown();
+        synchronized (this) {
+            this.closeChannel();
+        }
+    }
+
+    /**
+     * Force the current segment to disk and close it.
+     */
+    private void closeChannel() throws IOException {
+        if (this.channel != null) {
+            this.channel.force(false);
+            this.channel.close();
+            this.channel = null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.webcheckers.appl;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.webcheckers.util.Attributes.EXPIRE_CHAR;
+
+/**
+ * An unchanging picture of the {@Link PlayerLobby} for the home page: the status of every
+ * signed-in {@Link Player} and which of them are offline. One snapshot is shared by every
+ * home page render until the lobby changes, and its version changes only when its
+ * contents do, so it can serve as the page's ETag.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public final class LobbySnapshot {
+
+    /**
+     * Player statuses, also used as CSS classes on the home page
+     */
+    public static final String IS_SPECTATOR = "IS_SPECTATOR";
+    public static final String IN_GAME = "IN_GAME";
+    public static final String IS_OTHER = "IS_OTHER";
+
+    private final long version;
+    private final List<Map.Entry<String, String>> playerList;
+    private final String expireText;
+
+    /**
+     * @param version    version number of the contents
+     * @param playerList name and status of every player, which must not change afterwards
+     * @param expireText names of offline players, each surrounded by {@Link Attributes#EXPIRE_CHAR}
+     */
+    private LobbySnapshot(long version, List<Map.Entry<String, String>> playerList, String expireText) {
+        this.version = version;
+        this.playerList = playerList;
+        this.expireText = expireText;
+    }
+
+    /**
+     * @return version number of the contents, which goes up whenever they change
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return unmodifiable {@Linkplain List} of player names and statuses
+     */
+    public List<Map.Entry<String, String>> getPlayerList() {
+        return playerList;
+    }
+
+    /**
+     * @return names of offline players, each surrounded by {@Link Attributes#EXPIRE_CHAR}
+     */
+    public String getExpireText() {
+        return expireText;
+    }
+
+    /**
+     * Collects player statuses into a new {@Linkplain LobbySnapshot}.
+     */
+    static final class Builder {
+        private final List<Map.Entry<String, String>> playerList = new ArrayList<>();
+        private final StringBuilder expireText = new StringBuilder(EXPIRE_CHAR);
+
+        /**
+         * @param name   name of the player
+         * @param status {@link #IS_SPECTATOR}, {@link #IN_GAME} or {@link #IS_OTHER}
+         */
+        void addPlayer(String name, String status) {
+            this.playerList.add(new AbstractMap.SimpleImmutableEntry<>(name, status));
+        }
+
+        /**
+         * @param name name of a player who is offline
+         */
+        void addExpired(String name) {
+            this.expireText.append(name).append(EXPIRE_CHAR);
+        }
+
+        /**
+         * Build the snapshot, keeping the previous version number if nothing changed.
+         *
+         * @param previous the last snapshot, or null
+         * @return the new snapshot
+         */
+        LobbySnapshot build(LobbySnapshot previous) {
+            String expired = this.expireText.toString();
+            long version = 1;
+            if (previous != null) {
+                boolean same = previous.playerList.equals(this.playerList) && previous.expireText.equals(expired);
+                version = same ? previous.version : previous.version + 1;
+            }
+            return new LobbySnapshot(version, Collections.unmodifiableList(this.playerList), expired);
+        }
+    }
+}
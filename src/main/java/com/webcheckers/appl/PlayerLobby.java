@@ -1,52 +1,186 @@
 package com.webcheckers.appl;
 
+import com.webcheckers.model.Game;
 import com.webcheckers.model.Player;
 
 import java.io.*;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import static com.webcheckers.util.Attributes.*;
 
 /**
  * Handle {@Link Player} sign-ins and sign-outs and handles player names.
+ * <p>
+ * Players are indexed by name, and the game each player is in is indexed by player,
+ * in concurrent maps kept up to date together. Every lookup is a single map read, so
+ * listing the lobby is linear in the number of players.
+ * </p>
+ * <p>
+ * The home page reads the lobby through a shared {@Link LobbySnapshot}, rebuilt only
+ * after a player signs in or out, changes status or goes offline or back online.
+ * Players the {@Link ClientLobby} expires are signed out, resigning any game they are in.
+ * </p>
+ * <p>
+ * Signing in and out and joining and leaving games are stored in the {@Link Journal}.
+ * Spectators are not stored.
+ * </p>
  *
  * @author <a href='mailto:ajs1551@rit.edu'>Adam Seidman</a>
  */
-public class PlayerLobby {
+public class PlayerLobby implements Journal.Store {
+    private static final Logger LOG = getLogger(PlayerLobby.class);
 
     private final GameCenter gameCenter;
+    private final ClientLobby clientLobby;
+    private final Journal journal;
 
-    // Map of all players on the checkers WebApp server.
-    private HashMap<Player, String> players;
+    // Map of all players on the checkers WebApp server, by name.
+    private final Map<String, Player> players = new ConcurrentHashMap<>();
 
     // Map to mark inactive players
-    private HashMap<Player, Integer> gameMap;
+    private final Map<Player, Integer> gameMap = new ConcurrentHashMap<>();
 
     // Map for spectators
-    private HashMap<String, Integer> spectatorMap = new HashMap<>();
+    private final Map<String, Integer> spectatorMap = new ConcurrentHashMap<>();
 
-    public PlayerLobby(final GameCenter gameCenter) {
+    // Latest picture of the lobby, and whether it is known to be out of date
+    private volatile LobbySnapshot snapshot;
+    private volatile boolean snapshotStale = true;
+    private final Object snapshotLock = new Object();
+
+    /**
+     * @param gameCenter  {@Link GameCenter} holding the games players are in
+     * @param clientLobby {@Link ClientLobby} tracking when players were last seen
+     * @param journal     {@Link Journal} to keep players in. They are loaded when the
+     *                    journal is recovered.
+     */
+    public PlayerLobby(final GameCenter gameCenter, final ClientLobby clientLobby, final Journal journal) {
         this.gameCenter = gameCenter;
+        this.clientLobby = clientLobby;
+        this.journal = journal;
+        this.journal.register(this, Journal.Type.PLAYER_SIGNED_IN, Journal.Type.PLAYER_SIGNED_OUT,
+                Journal.Type.PLAYER_MARKED);
+        this.clientLobby.addListener(new ClientLobby.Listener() {
+            @Override
+            public void playerOnline(String name) {
+                changed();
+            }
+
+            @Override
+            public void playerOffline(String name) {
+                changed();
+            }
+
+            @Override
+            public void playerExpired(String name) {
+                expire(name);
+            }
+        });
+        if (!STORE_CLIENTS || !journal.isNew()) {
+            return;
+        }
         File readFile = new File(LOBBY_LOG_FILE_PATH);
+        if (!readFile.exists()) {
+            return;
+        }
         try (
                 ObjectInputStream ois = new ObjectInputStream(new FileInputStream(readFile))
         ) {
-            if (!STORE_CLIENTS) {
-                // Create new collections rather than reading
-                throw new IOException();
-            }
-            Object[] collections = (Object[]) ois.readObject();
-            this.players = (HashMap<Player, String>) collections[0];
-            this.gameMap = (HashMap<Player, Integer>) collections[1];
-        } catch (IOException | ClassNotFoundException e) {
-            // Make sure new collections exist
-            if(readFile.exists()) {
-                readFile.delete();
-            }
-            this.players = new HashMap<>();
-            this.gameMap = new HashMap<>();
+            // Players stored before the journal
+            this.restoreLegacy(ois);
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            // Keep the file, in case it can be read by another version
+            LOG.log(Level.WARNING, "Cannot read " + readFile, e);
+            this.players.clear();
+            this.gameMap.clear();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void snapshot(DataOutputStream out) throws IOException {
+        List<String> names = new ArrayList<>(this.players.keySet());
+        out.writeInt(names.size());
+        for (String name : names) {
+            out.writeUTF(name);
         }
+        Map<Player, Integer> games = new HashMap<>(this.gameMap);
+        out.writeInt(games.size());
+        for (Map.Entry<Player, Integer> entry : games.entrySet()) {
+            out.writeUTF(entry.getKey().getName());
+            out.writeInt(entry.getValue());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void restore(DataInputStream in) throws IOException {
+        for (int i = in.readInt(); i > 0; i--) {
+            String name = in.readUTF();
+            this.players.put(name, new Player(name));
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            this.gameMap.put(new Player(in.readUTF()), in.readInt());
+        }
+        this.changed();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void restoreLegacy(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        Object[] collections = (Object[]) in.readObject();
+        // Older logs kept players as the keys of a map.
+        Collection<Player> players = collections[0] instanceof Map
+                ? ((Map<Player, String>) collections[0]).keySet() : (Collection<Player>) collections[0];
+        for (Player player : players) {
+            this.players.put(player.getName(), player);
+        }
+        this.gameMap.putAll((Map<Player, Integer>) collections[1]);
+        this.changed();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void replay(Journal.Type type, DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        switch (type) {
+            case PLAYER_SIGNED_IN:
+                Player player = new Player(name);
+                this.players.put(name, player);
+                this.gameMap.put(player, GameCenter.EMPTY_GAME_KEY);
+                break;
+            case PLAYER_SIGNED_OUT:
+                Player removed = this.players.remove(name);
+                if (removed != null) {
+                    this.gameMap.remove(removed);
+                }
+                break;
+            case PLAYER_MARKED:
+                int gameID = in.readInt();
+                Player marked = this.players.get(name);
+                if (marked != null) {
+                    this.gameMap.put(marked, gameID);
+                }
+                break;
+            default:
+                break;
+        }
+        this.changed();
     }
 
     /**
@@ -66,14 +200,18 @@ public class PlayerLobby {
                 return false;
             }
         }
-        if (name.trim().length() == 0) {
-            // Name length = 0
+        if (name.trim().length() == 0 || ATTRIBUTES.contains(name)) {
+            // Name length = 0, or name is also an attribute
+            return false;
+        }
+        if (this.players.putIfAbsent(name, player) != null) {
+            // Another request signed in with the name first
             return false;
         }
-        this.players.put(player, player.getName());
         this.gameMap.put(player, GameCenter.EMPTY_GAME_KEY);
-        log();
-        return !ATTRIBUTES.contains(name); // make sure name is not also attribute
+        this.changed();
+        this.journal.append(Journal.Type.PLAYER_SIGNED_IN, out -> out.writeUTF(name));
+        return true;
     }
 
     /**
@@ -81,7 +219,7 @@ public class PlayerLobby {
      * @return True if exists in {@Linkplain PlayerLobby}
      */
     public boolean nameExists(String name) {
-        return this.players.containsValue(name);
+        return this.players.containsKey(name);
     }
 
     /**
@@ -101,7 +239,6 @@ public class PlayerLobby {
      */
     public void signOut(Player player) {
         this.signOut(player.getName());
-        log();
     }
 
     /**
@@ -111,33 +248,46 @@ public class PlayerLobby {
      * @return true if sign-out was successful.
      */
     public boolean signOut(String nameToRemove) {
-        final Player[] player_ = new Player[1];
-        this.players.forEach((player, name) -> {
-            if (nameToRemove.equals(name)) {
-                player_[0] = player;
-            }
-        });
-        if (player_[0] != null) {
-            Player player = player_[0];
-            int id = this.gameMap.get(player);
-            if (id != GameCenter.EMPTY_GAME_KEY) {
+        Player player = this.players.remove(nameToRemove);
+        if (player != null) {
+            Integer id = this.gameMap.remove(player);
+            this.journal.append(Journal.Type.PLAYER_SIGNED_OUT, out -> out.writeUTF(nameToRemove));
+            if (id != null && id != GameCenter.EMPTY_GAME_KEY) {
                 this.gameFinished(id);
             }
-            this.gameMap.remove(player);
-            this.players.remove(player);
-            log();
+            this.changed();
             return true;
         }
         return false;
     }
 
+    /**
+     * Sign out a {@Link Player} who has been away too long, resigning their game the way
+     * signing out does.
+     *
+     * @param name name of the {@Link Player}
+     */
+    private void expire(String name) {
+        Player player = this.getPlayer(name);
+        if (player == null) {
+            return;
+        }
+        this.removeSpectator(player);
+        int gameID = this.getPlayerGameID(player);
+        if (gameID != GameCenter.EMPTY_GAME_KEY) {
+            this.gameFinished(gameID);
+            this.gameCenter.resignGame(gameID, player);
+        }
+        this.signOut(name);
+    }
+
     /**
      * Get all {@Link Player} names signed on to WebApp.
      *
      * @return {@Linkplain Collection} of {@Link Player} names.
      */
     public Collection<String> getUserNamesList() {
-        return this.players.values();
+        return this.players.keySet();
     }
 
     /**
@@ -147,15 +297,13 @@ public class PlayerLobby {
      * @return The {@Link Player} that is the opponent of 'player'.
      */
     public Player getOpponentOf(Player player) {
-        if (this.gameMap.containsKey(player)) {
-            try {
-                return this.gameCenter.getGame(this.gameMap.get(player)).getOppositePlayer(player);
-            } catch (NullPointerException e) {
-                return null;
-                // Thrown when player not in game.
-            }
+        if (player == null) {
+            return null;
         }
-        return null;
+        Integer id = this.gameMap.get(player);
+        Game game = id == null ? null : this.gameCenter.getGame(id);
+        // Not in a game if there is none under the ID.
+        return game == null ? null : game.getOppositePlayer(player);
     }
 
     /**
@@ -165,12 +313,7 @@ public class PlayerLobby {
      * @return The {@Link Player} that is the opponent of the player given.
      */
     public Player getOpponentOf(String username) {
-        for (Player player : this.players.keySet()) {
-            if (player.getName().equals(username)) {
-                return getOpponentOf(player);
-            }
-        }
-        return null;
+        return getOpponentOf(this.getPlayer(username));
     }
 
     /**
@@ -179,9 +322,28 @@ public class PlayerLobby {
      * @param gameID {@Link Game} that has been started.
      */
     public void markPlayersInGame(int gameID) {
-        this.gameMap.put(this.gameCenter.getGame(gameID).getRedPlayer(), gameID);
-        this.gameMap.put(this.gameCenter.getGame(gameID).getWhitePlayer(), gameID);
-        log();
+        Game game = this.gameCenter.getGame(gameID);
+        this.markPlayer(game.getRedPlayer(), gameID);
+        this.markPlayer(game.getWhitePlayer(), gameID);
+    }
+
+    /**
+     * Record which {@Link Game} a {@Link Player} is in. The computer is not a
+     * signed-in player, so it is never recorded, and neither is a player who has
+     * signed out.
+     *
+     * @param player {@Link Player} being marked
+     * @param gameID game the player is in, or {@Link GameCenter#EMPTY_GAME_KEY}
+     */
+    private void markPlayer(Player player, int gameID) {
+        if (!player.isComputer() && this.players.containsKey(player.getName())) {
+            this.gameMap.put(player, gameID);
+            this.changed();
+            this.journal.append(Journal.Type.PLAYER_MARKED, out -> {
+                out.writeUTF(player.getName());
+                out.writeInt(gameID);
+            });
+        }
     }
 
     /**
@@ -192,6 +354,7 @@ public class PlayerLobby {
      */
     public void markSpectator(Player player, int gameID) {
         this.spectatorMap.put(player.getName(), gameID);
+        this.changed();
     }
 
     /**
@@ -201,6 +364,7 @@ public class PlayerLobby {
      */
     public void removeSpectator(Player player) {
         this.spectatorMap.remove(player.getName());
+        this.changed();
     }
 
     /**
@@ -209,9 +373,11 @@ public class PlayerLobby {
      * @param gameID game id of the {@Link Ganme} that has ended
      */
     public void gameFinished(int gameID) {
-        this.gameMap.put(this.gameCenter.getGame(gameID).getWhitePlayer(), GameCenter.EMPTY_GAME_KEY);
-        this.gameMap.put(this.gameCenter.getGame(gameID).getRedPlayer(), GameCenter.EMPTY_GAME_KEY);
-        log();
+        Game game = this.gameCenter.getGame(gameID);
+        if (game != null) {
+            this.markPlayer(game.getWhitePlayer(), GameCenter.EMPTY_GAME_KEY);
+            this.markPlayer(game.getRedPlayer(), GameCenter.EMPTY_GAME_KEY);
+        }
     }
 
     /**
@@ -221,12 +387,7 @@ public class PlayerLobby {
      * @return {@Link Player} or null if does not exist
      */
     public Player getPlayer(String username) {
-        for (Player player : this.players.keySet()) {
-            if (player.getName().equals(username)) { // Search for player by username
-                return player;
-            }
-        }
-        return null;
+        return username == null ? null : this.players.get(username);
     }
 
     /**
@@ -236,22 +397,62 @@ public class PlayerLobby {
      * @return The players gameID for the {@Link GameCenter}
      */
     public int getPlayerGameID(Player player) {
-        return this.gameMap.get(player);
+        return this.gameMap.getOrDefault(player, GameCenter.EMPTY_GAME_KEY);
     }
 
     /**
-     * Log the maps to {@Link File}.
+     * Mark the {@Link LobbySnapshot} out of date.
+     */
+    private void changed() {
+        this.snapshotStale = true;
+    }
+
+    /**
+     * Get the current picture of the lobby. Every caller shares the same snapshot until
+     * the lobby changes.
+     *
+     * @return {@Link LobbySnapshot}
      */
-    public void log() {
-        if (STORE_CLIENTS) {
-            try (
-                    ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(new File(LOBBY_LOG_FILE_PATH)))
-            ) {
-                oos.writeObject(new HashMap[]{this.players, this.gameMap});
-                oos.flush();
-            } catch (IOException ignored) {
+    public LobbySnapshot getSnapshot() {
+        LobbySnapshot current = this.snapshot;
+        if (current != null && !this.snapshotStale) {
+            return current;
+        }
+        synchronized (this.snapshotLock) {
+            current = this.snapshot;
+            if (current != null && !this.snapshotStale) {
+                // Another thread rebuilt it
+                return current;
+            }
+            // Cleared first, so a change made while building marks the new snapshot stale.
+            this.snapshotStale = false;
+            this.snapshot = this.buildSnapshot(current);
+            return this.snapshot;
+        }
+    }
+
+    /**
+     * @param previous the last snapshot, or null
+     * @return a new {@Link LobbySnapshot} of the lobby as it is now
+     */
+    private LobbySnapshot buildSnapshot(LobbySnapshot previous) {
+        LobbySnapshot.Builder builder = new LobbySnapshot.Builder();
+        List<String> names = new ArrayList<>(this.players.keySet());
+        names.sort(null);
+        for (String name : names) {
+            // Give each player an identifier for home page css
+            if (this.isSpectator(name)) {
+                builder.addPlayer(name, LobbySnapshot.IS_SPECTATOR);
+            } else if (this.getOpponentOf(name) != null) {
+                builder.addPlayer(name, LobbySnapshot.IN_GAME);
+            } else {
+                builder.addPlayer(name, LobbySnapshot.IS_OTHER);
+            }
+            if (this.clientLobby.isOffline(name)) {
+                builder.addExpired(name);
             }
         }
+        return builder.build(previous);
     }
 
     /**
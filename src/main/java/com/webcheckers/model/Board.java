@@ -0,0 +1,370 @@
+package com.webcheckers.model;
+
+import java.io.Serializable;
+
+import static com.webcheckers.util.Attributes.CHECKERBOARD_ROWS;
+import static com.webcheckers.util.Attributes.CHECKERBOARD_SPACES;
+
+/**
+ * A <code>Board</code> is the packed state of a checkerboard. Pieces can only ever sit
+ * on the 32 dark {@link Space}s, so the whole board is held in three 32-bit masks: one for
+ * red pieces, one for white pieces and one for kings. Bit <code>n</code> of each mask is
+ * square <code>n</code>, numbered four to a row starting at row 0, cell 1. The board also
+ * keeps a {@link Zobrist} hash of its pieces, updated as pieces move, are captured or crowned.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ * @see BoardView
+ */
+public class Board implements Serializable {
+
+    /**
+     * Number of playable (dark) squares on the board
+     */
+    public static final int SQUARES = 32;
+
+    /**
+     * Number of playable squares in each {@link Row}
+     */
+    static final int SQUARES_PER_ROW = SQUARES / CHECKERBOARD_ROWS;
+
+    /**
+     * Starting masks: white fills rows 0-2 and red fills rows 5-7
+     */
+    private static final int INITIAL_WHITE = 0x00000FFF;
+    private static final int INITIAL_RED = 0xFFF00000;
+
+    /**
+     * Squares that promote a piece when reached: row 0 for red and row 7 for white
+     */
+    static final int RED_KING_ROW = 0x0000000F;
+    static final int WHITE_KING_ROW = 0xF0000000;
+
+    /**
+     * Diagonal directions. Red men move north (towards row 0) and white men move south.
+     */
+    public static final int NORTH_WEST = 0;
+    public static final int NORTH_EAST = 1;
+    public static final int SOUTH_WEST = 2;
+    public static final int SOUTH_EAST = 3;
+    public static final int DIRECTIONS = 4;
+
+    /**
+     * For every direction and square, the square one step away and the square a jump
+     * lands on, or -1 where that would leave the board. Built once when the class loads.
+     */
+    private static final int[][] NEIGHBOR = new int[DIRECTIONS][SQUARES];
+    private static final int[][] JUMP = new int[DIRECTIONS][SQUARES];
+
+    static {
+        for (int direction = 0; direction < DIRECTIONS; direction++) {
+            int rowStep = direction < SOUTH_WEST ? -1 : 1;
+            int cellStep = (direction & 1) == 0 ? -1 : 1;
+            for (int square = 0; square < SQUARES; square++) {
+                int row = rowOf(square);
+                int cell = cellOf(square);
+                NEIGHBOR[direction][square] = square(row + rowStep, cell + cellStep);
+                JUMP[direction][square] = square(row + 2 * rowStep, cell + 2 * cellStep);
+            }
+        }
+    }
+
+    private int red;
+    private int white;
+    private int kings;
+    private long hash;
+
+    /**
+     * Create a new <code>Board</code> set up for the start of a game.
+     */
+    public Board() {
+        this.red = INITIAL_RED;
+        this.white = INITIAL_WHITE;
+        this.kings = 0;
+        this.hash = Zobrist.hash(this.red, this.white, this.kings);
+    }
+
+    /**
+     * Create a <code>Board</code> holding the given pieces.
+     *
+     * @param red   squares holding red pieces
+     * @param white squares holding white pieces
+     * @param kings squares holding kings of either side
+     */
+    public Board(int red, int white, int kings) {
+        this.setPieces(red, white, kings);
+    }
+
+    /**
+     * @return a new <code>Board</code> holding the same pieces as this one
+     */
+    public Board copy() {
+        Board copy = new Board();
+        copy.red = this.red;
+        copy.white = this.white;
+        copy.kings = this.kings;
+        copy.hash = this.hash;
+        return copy;
+    }
+
+    /**
+     * Replace every piece on the board.
+     *
+     * @param red   squares holding red pieces
+     * @param white squares holding white pieces
+     * @param kings squares holding kings of either side
+     */
+    void setPieces(int red, int white, int kings) {
+        this.red = red;
+        this.white = white & ~red;
+        this.kings = kings & (red | white);
+        this.hash = Zobrist.hash(this.red, this.white, this.kings);
+    }
+
+    /**
+     * Get the square index of a dark {@link Space}.
+     *
+     * @param row  row of the space
+     * @param cell cell of the space
+     * @return index from 0 to 31, or -1 if the space is light or off the board
+     */
+    public static int square(int row, int cell) {
+        if (row < 0 || row >= CHECKERBOARD_ROWS || cell < 0 || cell >= CHECKERBOARD_SPACES || !isDark(row, cell)) {
+            return -1;
+        }
+        return row * SQUARES_PER_ROW + (cell >> 1);
+    }
+
+    /**
+     * @param row  row of the space
+     * @param cell cell of the space
+     * @return True, if the space at the coordinates is dark.
+     */
+    public static boolean isDark(int row, int cell) {
+        return ((row + cell) & 1) == 1;
+    }
+
+    /**
+     * @param square index of a square
+     * @return the row the square sits on
+     */
+    public static int rowOf(int square) {
+        return square / SQUARES_PER_ROW;
+    }
+
+    /**
+     * @param square index of a square
+     * @return the cell the square sits on within its row
+     */
+    public static int cellOf(int square) {
+        int row = rowOf(square);
+        return ((square % SQUARES_PER_ROW) << 1) + (1 - (row & 1));
+    }
+
+    /**
+     * @param from index of the starting square
+     * @param to   index of the ending square
+     * @return the square jumped over moving from one to the other, or -1 if the step
+     * is not a jump
+     */
+    public static int jumped(int from, int to) {
+        int fromRow = rowOf(from);
+        int toRow = rowOf(to);
+        if (Math.abs(toRow - fromRow) != 2) {
+            return -1;
+        }
+        return square((fromRow + toRow) >> 1, (cellOf(from) + cellOf(to)) >> 1);
+    }
+
+    /**
+     * @param square    index of the starting square
+     * @param direction one of the four diagonal directions
+     * @return the adjacent square in that direction, or -1 if off the board
+     */
+    public static int neighbor(int square, int direction) {
+        return NEIGHBOR[direction][square];
+    }
+
+    /**
+     * @param square    index of the starting square
+     * @param direction one of the four diagonal directions
+     * @return the square a jump in that direction lands on, or -1 if off the board
+     */
+    public static int jump(int square, int direction) {
+        return JUMP[direction][square];
+    }
+
+    /**
+     * Get the direction of a diagonal step.
+     *
+     * @param rowChange  rows moved
+     * @param cellChange cells moved
+     * @return the direction, or -1 if the step is not diagonal
+     */
+    public static int direction(int rowChange, int cellChange) {
+        if (rowChange == 0 || Math.abs(rowChange) != Math.abs(cellChange)) {
+            return -1;
+        }
+        return (rowChange < 0 ? NORTH_WEST : SOUTH_WEST) + (cellChange < 0 ? 0 : 1);
+    }
+
+    /**
+     * @param color     color of the piece
+     * @param direction one of the four diagonal directions
+     * @return True, if a single (un-kinged) piece of that color may move that way.
+     */
+    public static boolean isForward(Piece.Color color, int direction) {
+        return color.equals(Piece.Color.RED) == (direction < SOUTH_WEST);
+    }
+
+    /**
+     * Get the {@link Piece} on a square.
+     *
+     * @param square index of the square
+     * @return the shared {@link Piece} on the square, or null if it is empty
+     */
+    public Piece getPiece(int square) {
+        int bit = 1 << square;
+        boolean isKing = (kings & bit) != 0;
+        if ((red & bit) != 0) {
+            return isKing ? Piece.RED_KING : Piece.RED_SINGLE;
+        } else if ((white & bit) != 0) {
+            return isKing ? Piece.WHITE_KING : Piece.WHITE_SINGLE;
+        }
+        return null;
+    }
+
+    /**
+     * Get the {@link Piece} on a space.
+     *
+     * @param row  row of the space
+     * @param cell cell of the space
+     * @return the piece, or null if the space is empty or light
+     */
+    public Piece getPiece(int row, int cell) {
+        int square = square(row, cell);
+        return square < 0 ? null : this.getPiece(square);
+    }
+
+    /**
+     * @param square index of the square
+     * @return True, if no piece is on the square.
+     */
+    public boolean isEmpty(int square) {
+        return ((red | white) & (1 << square)) == 0;
+    }
+
+    /**
+     * Place a {@link Piece} on a square, replacing whatever was there.
+     *
+     * @param square index of the square
+     * @param piece  piece to place
+     */
+    public void setPiece(int square, Piece piece) {
+        this.removePiece(square);
+        int bit = 1 << square;
+        boolean isRed = piece.getColor() == Piece.Color.RED;
+        boolean isKing = piece.getType() == Piece.Type.KING;
+        if (isRed) {
+            red |= bit;
+        } else {
+            white |= bit;
+        }
+        if (isKing) {
+            kings |= bit;
+        }
+        hash ^= Zobrist.piece(isRed, isKing, square);
+    }
+
+    /**
+     * Clear a square.
+     *
+     * @param square index of the square
+     */
+    public void removePiece(int square) {
+        int bit = 1 << square;
+        if (((red | white) & bit) != 0) {
+            hash ^= Zobrist.piece((red & bit) != 0, (kings & bit) != 0, square);
+        }
+        int mask = ~bit;
+        red &= mask;
+        white &= mask;
+        kings &= mask;
+    }
+
+    /**
+     * Move the piece on one square to another, crowning it if it reaches the far row.
+     *
+     * @param from index of the starting square
+     * @param to   index of the ending square
+     */
+    public void move(int from, int to) {
+        int fromBit = 1 << from;
+        int toBit = 1 << to;
+        boolean isRed = (red & fromBit) != 0;
+        if (((red | white) & fromBit) != 0) {
+            hash ^= Zobrist.piece(isRed, (kings & fromBit) != 0, from);
+        }
+        if (isRed) {
+            red = (red & ~fromBit) | toBit;
+            if ((toBit & RED_KING_ROW) != 0) {
+                kings |= toBit;
+            }
+        } else if ((white & fromBit) != 0) {
+            white = (white & ~fromBit) | toBit;
+            if ((toBit & WHITE_KING_ROW) != 0) {
+                kings |= toBit;
+            }
+        }
+        if ((kings & fromBit) != 0) {
+            kings = (kings & ~fromBit) | toBit;
+        }
+        if (((red | white) & toBit) != 0) {
+            hash ^= Zobrist.piece(isRed, (kings & toBit) != 0, to);
+        }
+    }
+
+    /**
+     * @param color color of the pieces
+     * @return mask of every square holding a piece of that color
+     */
+    public int getPieces(Piece.Color color) {
+        return color.equals(Piece.Color.RED) ? red : white;
+    }
+
+    /**
+     * @param color color of the moving side
+     * @return mask of every square holding a piece of the other color
+     */
+    public int getOpponentPieces(Piece.Color color) {
+        return color.equals(Piece.Color.RED) ? white : red;
+    }
+
+    /**
+     * @return mask of every empty square
+     */
+    public int getEmpty() {
+        return ~(red | white);
+    }
+
+    /**
+     * @return mask of every square holding a king
+     */
+    public int getKings() {
+        return kings;
+    }
+
+    /**
+     * @return the {@link Zobrist} hash of the pieces on the board, without a side to move
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * @param color color of the pieces
+     * @return how many pieces of that color are left on the board
+     */
+    public int count(Piece.Color color) {
+        return Integer.bitCount(this.getPieces(color));
+    }
+}
@@ -1,22 +1,20 @@
 package com.webcheckers.model;
 
-import com.webcheckers.util.Attributes;
-
 import java.io.Serializable;
 import java.util.Iterator;
-import java.util.LinkedList;
 
 import static com.webcheckers.util.Attributes.CHECKERBOARD_ROWS;
 
 /**
- * A <code>BoardView</code> is composed of an array of {@link Row}s which
- * are in turn composed of an array of {@link Space}s. Taken together
+ * A <code>BoardView</code> presents a packed {@link Board} as {@link Row}s which
+ * are in turn composed of {@link Space}s. Taken together
  * <code>Row</code> by <code>Space</code>, an 8 by 8 matrix is formed
  * representing a checkerboard. It implements {@linkplain Iterable} so that
  * it can be displayed by FreeMarker.
  *
  * @author <a href='mailto:ajs1551@rit.edu'>Adam Seidman</a>
  * @author <a href='mailto:np9379@rit.edu'>Nathan Page</a>
+ * @see Board
  * @see Row
  * @see Space
  */
@@ -29,28 +27,50 @@ public class BoardView implements Iterable<Row>, Serializable {
      * false = the board is in the red player's perspective
      * true = the board is in the white player's perspective
      */
-    private boolean isFlipped;
+    private final boolean isFlipped;
 
     /**
-     * Queue of moves to be transmitted between players
+     * The packed state of the pieces on the board
      */
-    private LinkedList<Move> moves = new LinkedList<>();
+    private final Board board;
 
     /**
-     * an array of <code>Row</code> objects to be filled by the constructor
+     * Create a new <code>Boardview</code> over a <code>Board</code> set up for
+     * the start of a game.
      */
-    private Row[] rows = new Row[CHECKERBOARD_ROWS];
+    public BoardView(boolean isFlipped) {
+        this(new Board(), isFlipped);
+    }
 
     /**
-     * Create a new <code>Boardview</code> by instantiating 8 <code>Row</code>s and
-     * compiling them into an array.
+     * Create an unflipped <code>BoardView</code> of an existing {@link Board}.
+     *
+     * @param board the board to view
      */
-    public BoardView(boolean isFlipped) {
+    public BoardView(Board board) {
+        this(board, false);
+    }
+
+    /**
+     * Create a <code>BoardView</code> of an existing {@link Board}, seen from the given side.
+     *
+     * @param board     the board to view
+     * @param isFlipped true for the white player's perspective
+     */
+    public BoardView(Board board, boolean isFlipped) {
         this.isFlipped = isFlipped;
-        for (int i = 0; i < CHECKERBOARD_ROWS; i++) {
-            Row r = new Row(i, this.isFlipped);
-            rows[i] = r;
-        }
+        this.board = board;
+    }
+
+    /**
+     * Get this board as seen from one side. No state is copied; both views
+     * read the same <code>Board</code>.
+     *
+     * @param flipped true for the white player's perspective
+     * @return a <code>BoardView</code> in the requested orientation
+     */
+    public BoardView getView(boolean flipped) {
+        return flipped == this.isFlipped ? this : new BoardView(this.board, flipped);
     }
 
     /**
@@ -69,18 +89,19 @@ public class BoardView implements Iterable<Row>, Serializable {
      * @return the row called for
      */
     public Row getRowAt(int index) {
-        return rows[index];
+        if (index < 0 || index >= CHECKERBOARD_ROWS) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        return new Row(this.board, index, this.isFlipped);
     }
 
     /**
-     * Returns the space at a given index
+     * Returns the packed state behind this view
      *
-     * @param x x coordinate of piece
-     * @param y y coordinate of piece
-     * @return Space at given coordinates
+     * @return the {@link Board}
      */
-    private Space getCellAt(int x, int y) {
-        return rows[x].getCellAt(y);
+    public Board getBoard() {
+        return board;
     }
 
     /**
@@ -91,7 +112,7 @@ public class BoardView implements Iterable<Row>, Serializable {
      * @return Piece at given coordinates
      */
     private Piece getPieceAt(int x, int y) {
-        return this.getCellAt(x, y).getPiece();
+        return this.board.getPiece(x, y);
     }
 
     /**
@@ -103,7 +124,9 @@ public class BoardView implements Iterable<Row>, Serializable {
      */
     public Piece removePieceAt(int x, int y) {
         Piece piece = this.getPieceAt(x, y);
-        getCellAt(x, y).removePiece();
+        if (piece != null) {
+            this.board.removePiece(Board.square(x, y));
+        }
 
         return piece;
     }
@@ -116,73 +139,17 @@ public class BoardView implements Iterable<Row>, Serializable {
      * @param piece piece to be played upon given space
      */
     public void setPieceAt(int x, int y, Piece piece) {
-        if (getCellAt(x, y).isValid())
-            getCellAt(x, y).setPiece(piece);
+        int square = Board.square(x, y);
+        if (square >= 0 && this.board.isEmpty(square))
+            this.board.setPiece(square, piece);
     }
 
     /**
-     * Add a move to the move queue
-     *
-     * @param move move to be added
+     * @param color color of the pieces
+     * @return how many pieces of that color are left on the board
      */
-    public void addMove(Move move) {
-        moves.add(move);
-    }
-
-    /**
-     * Retrieve most recent move from queue
-     *
-     * @return most recent move
-     */
-    public Move getMove() {
-        return moves.poll();
-    }
-
-    /**
-     * Submit all moves in the queue
-     *
-     * @return True, if there were moves to make
-     */
-    public boolean submitMoves() {
-        if (this.moves.size() == 0) {
-            return false;
-        }
-        while (moves.size() > 0) {
-            // While there are moves in the queue, remove them and adjust the board accordingly.
-            Move move = this.getMove();
-            int rowStart = move.getStart().getRow();
-            int cellStart = move.getStart().getCell();
-            int rowEnd = move.getEnd().getRow();
-            int cellEnd = move.getEnd().getCell();
-            if (Math.abs(rowEnd - rowStart) == 2) {
-                // Remove a piece if it is jumped.
-                this.removePieceAt(rowStart + ((rowEnd - rowStart) / 2), cellStart + ((cellEnd - cellStart) / 2));
-            }
-            this.setPieceAt(rowEnd, cellEnd, this.removePieceAt(rowStart, cellStart));
-            if (rowEnd % (Attributes.CHECKERBOARD_ROWS - 1) == 0) {
-                this.getPieceAt(rowEnd, cellEnd).kingMe();
-            }
-        }
-        return true;
-    }
-
-    /**
-     * @return the number of moves currently made on this {@LinkPlain BoardView}
-     */
-    public int numOfMovesMade() {
-        return this.moves.size();
-    }
-
-    /**
-     * Get the initialPosition of the current {@Link Move}s
-     *
-     * @return {@Link Position}
-     */
-    public Position getInitialPosition() {
-        if (this.moves.size() == 0) {
-            return null;
-        }
-        return this.moves.peekFirst().getStart();
+    public int count(Piece.Color color) {
+        return this.board.count(color);
     }
 
     /**
@@ -238,7 +205,7 @@ public class BoardView implements Iterable<Row>, Serializable {
             } else {
                 current++;
             }
-            return rows[current];
+            return new Row(board, current, isFlipped);
         }
     }
 }
@@ -1,7 +1,11 @@
 package com.webcheckers.model;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -10,6 +14,11 @@ import static com.webcheckers.util.Attributes.*;
 import static java.lang.Boolean.TRUE;
 
 /**
+ * A <code>Game</code> is safe to share between request threads. Every method that
+ * reads or changes its state holds the game's own lock, so requests for different
+ * games never wait on each other. To run several calls as one step, such as playing
+ * a whole turn, hold the lock with <code>synchronized (game)</code>.
+ *
  * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
  */
 public class Game implements Serializable {
@@ -17,26 +26,60 @@ public class Game implements Serializable {
         PLAY, SPECTATOR
     }
 
-    private enum MoveType {
-        JUMP, SINGLE, NONE
+    /**
+     * Outcome of checking a {@Link Move} against the legal turns
+     */
+    public enum MoveResult {
+        VALID, TOO_MANY_MOVES, JUMP_AVAILABLE, ALREADY_JUMPED, INVALID
+    }
+
+    /**
+     * Outcome of submitting a turn
+     */
+    public enum TurnResult {
+        SUBMITTED, NO_MOVES, JUMP_UNFINISHED
     }
 
     private Player redPlayer;
     private Player whitePlayer;
     private BoardView board;
-    private BoardView flippedBoard;
-    private List<Position> removedPieces;
-    private MoveType firstMove = MoveType.NONE;
+    /**
+     * Moves made this turn but not yet submitted
+     */
+    private final TurnBuilder turn = new TurnBuilder();
+    /**
+     * Number of turns submitted so far
+     */
+    private int ply;
+    /**
+     * Squares the piece stood on in the last turn submitted
+     */
+    private int[] lastTurn = new int[0];
+    /**
+     * Every step submitted so far
+     */
+    private MoveLog moveLog = new MoveLog();
+    /**
+     * When the game was started, in milliseconds since the epoch, or 0 if it was stored
+     * before that was kept
+     */
+    private long created = System.currentTimeMillis();
     private boolean redActive = true;
     private boolean winnerRed = false;
+    private boolean draw = false;
     private boolean moveFlag = false;
+    private boolean resigned = false;
+    private int searchThreads = COMPUTER_SEARCH_THREADS;
+
+    /**
+     * Every legal turn for the active player, built once per turn
+     */
+    private transient MoveList legalMoves;
 
     public Game(Player redPlayer, Player whitePlayer) {
         this.redPlayer = redPlayer;
         this.whitePlayer = whitePlayer;
         this.board = new BoardView(false);
-        this.flippedBoard = new BoardView(true);
-        this.removedPieces = new ArrayList<>();
     }
 
     public Player getRedPlayer() {
@@ -47,18 +90,51 @@ public class Game implements Serializable {
         return whitePlayer;
     }
 
-    public BoardView getBoard(boolean flipped) {
-        return flipped ? this.flippedBoard : board;
+    /**
+     * Get the {@Link BoardView} of this game from one side. There is only one board;
+     * the white player's side is a view of it iterated in reverse. The view reads the
+     * live board, so hold the game's lock while using it.
+     *
+     * @param flipped True for the white player's perspective
+     * @return {@Link BoardView}
+     */
+    public synchronized BoardView getBoard(boolean flipped) {
+        return this.board.getView(flipped);
     }
 
-    public Piece.Color getColor() {
+    /**
+     * @return a copy of the {@Link Board} that later turns do not change
+     */
+    public synchronized Board copyBoard() {
+        return this.board.getBoard().copy();
+    }
+
+    /**
+     * @return The number of threads the computer searches its turns with in this game.
+     */
+    public synchronized int getSearchThreads() {
+        return searchThreads;
+    }
+
+    /**
+     * Set the number of threads the computer searches with. The server still caps
+     * the total number of search threads across every game.
+     *
+     * @param searchThreads Threads to search with, at least 1
+     */
+    public synchronized void setSearchThreads(int searchThreads) {
+        this.searchThreads = Math.max(1, searchThreads);
+    }
+
+    public synchronized Piece.Color getColor() {
         return redActive ? Piece.Color.RED : Piece.Color.WHITE;
     }
 
     /**
      * Switch the active player
      */
-    public void changePlayer() {
+    public synchronized void changePlayer() {
+        this.legalMoves = null;
         if (redActive) {
             redActive = false;
         } else {
@@ -78,13 +154,14 @@ public class Game implements Serializable {
 
     /**
      * Get the attributes that would supply a game page to a user.
-     * typically a spectator
+     * typically a spectator. The board is a copy, so the page can be rendered
+     * without holding the game's lock.
      *
      * @param currentPlayer The current {@Link Player}
      * @param boardFlipped  True if {@Link BoardView} is needed flipped.
      * @return {@Linkplain Map}
      */
-    public Map<String, Object> getGameAttributes(Player currentPlayer, boolean boardFlipped) {
+    public synchronized Map<String, Object> getGameAttributes(Player currentPlayer, boolean boardFlipped) {
         Map<String, Object> vm = new HashMap<>();
 
         if (redActive) {
@@ -101,7 +178,7 @@ public class Game implements Serializable {
         vm.put(VIEW_MODE_ATTR, modeIsPlay ? viewMode.PLAY : viewMode.SPECTATOR);
         vm.put(RED_PLAYER_ATTR, redPlayer);
         vm.put(WHITE_PLAYER_ATTR, whitePlayer);
-        vm.put(BOARD_ATTR, this.getBoard(boardFlipped));
+        vm.put(BOARD_ATTR, new BoardView(this.board.getBoard().copy(), boardFlipped));
 
         return vm;
     }
@@ -114,79 +191,242 @@ public class Game implements Serializable {
     }
 
     /**
-     * {@see BoardView.submitMoves()}
+     * {@see TurnBuilder.submit(Board)}
      *
-     * @return True, if there are moves in either.
+     * @return True, if there were moves to submit.
      */
-    public boolean submitMoves() {
+    public synchronized boolean submitMoves() {
         this.moveFlag = TRUE;
-        this.removedPieces = new ArrayList<>();
-        this.firstMove = MoveType.NONE;
-        return flippedBoard.submitMoves() | board.submitMoves();
+        this.legalMoves = null;
+        int[] path = this.turn.getPath();
+        if (!this.turn.submit(this.board.getBoard())) {
+            return false;
+        }
+        this.lastTurn = path;
+        this.moveLog.add(path);
+        this.ply++;
+        return true;
     }
 
     /**
-     * Add a move to the move queue
+     * @return the number of turns submitted so far
+     */
+    public synchronized int getPly() {
+        return this.ply;
+    }
+
+    /**
+     * @return every square the piece stood on in the last turn submitted, in order, or
+     * an empty array before the first turn
+     */
+    public synchronized int[] getLastTurn() {
+        return this.lastTurn.clone();
+    }
+
+    /**
+     * @return when the game was started, in milliseconds since the epoch, or 0 if unknown
+     */
+    public synchronized long getCreated() {
+        return this.created;
+    }
+
+    /**
+     * @return every step submitted so far, packed as {@Link MoveLog} steps
+     */
+    public synchronized int[] getMoveLog() {
+        return this.moveLog.toArray();
+    }
+
+    /**
+     * Submit the moves made this turn and hand the turn to the other player, unless a
+     * multi-jump has been left unfinished.
      *
-     * @param move move to be added
+     * @return {@Link TurnResult}, SUBMITTED if the other player is now active
      */
-    public void addMove(Move move) {
-        if (Math.abs(move.getStart().getRow() - move.getEnd().getRow()) == 2) {
-            this.firstMove = MoveType.JUMP;
-        } else {
-            this.firstMove = MoveType.SINGLE;
+    public synchronized TurnResult submitTurn() {
+        if (this.hasPartialTurn()) {
+            return TurnResult.JUMP_UNFINISHED;
         }
-        this.board.addMove(move);
-        this.flippedBoard.addMove(move);
-        Position start = move.getStart();
-        Position end = move.getEnd();
-        if (Math.abs(start.getRow() - end.getRow()) == 2) {
-            // Add a removed piece to a list of jumped pieces.
-            this.removedPieces.add(new Position(start.getRow() + ((end.getRow() - start.getRow()) / 2),
-                    start.getCell() + ((end.getCell() - start.getCell()) / 2)));
+        if (!this.submitMoves()) {
+            return TurnResult.NO_MOVES;
         }
+        this.changePlayer();
+        return TurnResult.SUBMITTED;
     }
 
     /**
-     * Check to see if a position of an opponent's {@Link Piece} has been removed form the {@Link BoardView}
+     * Play a whole turn for the active player: drop any moves in progress, add the
+     * given ones and submit them.
      *
-     * @param position The {@Link Position} the opponents {@Link Piece} is sitting on.
-     * @return True, if {@Link Piece} has been taken off of {@Link Space}
+     * @param moves every step of the turn, in order
+     * @return {@Link TurnResult}, SUBMITTED if the other player is now active
      */
-    public boolean posRemoved(Position position) {
-        return this.removedPieces.contains(position);
+    public synchronized TurnResult playTurn(List<Move> moves) {
+        this.turn.clear();
+        for (Move move : moves) {
+            this.addMove(move);
+        }
+        return this.submitTurn();
     }
 
     /**
-     * Retrieve most recent move from queue
+     * Play a whole turn for the active player, given as the squares its piece stands on.
      *
-     * @return [most recent move, flipped]
+     * @param path every square the piece stands on, starting where it starts
+     * @return {@Link TurnResult}, SUBMITTED if the other player is now active
      */
-    public Move[] getMove() {
-        return new Move[]{this.board.getMove(), this.flippedBoard.getMove()};
+    public synchronized TurnResult playTurn(int[] path) {
+        this.turn.clear();
+        for (int i = 0; i + 1 < path.length; i++) {
+            this.addMove(path[i], path[i + 1]);
+        }
+        return this.submitTurn();
     }
 
     /**
-     * Move has been built completely based off of number of spaces move
+     * Get every legal turn for the active player. The list is generated once and
+     * reused until the turn is submitted.
      *
-     * @param numSpaces Number of (@Link Rows) moved in next move
-     * @return True if based off params, can't move any more {@Link Space}s.
+     * @return {@Link MoveList}
      */
-    public boolean moveBuildComplete(int numSpaces) {
-        return !(this.firstMove.equals(MoveType.NONE) || (numSpaces == 2 && this.firstMove.equals(MoveType.JUMP)));
+    public synchronized MoveList getLegalMoves() {
+        if (this.legalMoves == null) {
+            this.legalMoves = MoveGenerator.generate(this.board.getBoard(), this.getColor());
+        }
+        return this.legalMoves;
     }
 
     /**
-     * Back up one move
+     * Check if a {@Link Move} continues the moves already made this turn towards a legal turn.
+     *
+     * @param move The next {@Link Move}
+     * @return {@Link MoveResult}, VALID if the move may be added
      */
-    public void backUp() {
-        this.getMove();
-        if (this.board.numOfMovesMade() == 0) {
-            this.firstMove = MoveType.NONE;
+    public synchronized MoveResult validateMove(Move move) {
+        return this.validateMove(move.getStart().getSquare(), move.getEnd().getSquare());
+    }
+
+    /**
+     * Check if a move continues the moves already made this turn towards a legal turn.
+     *
+     * @param from index of the square moved from, or -1 for a light square
+     * @param to   index of the square moved to, or -1 for a light square
+     * @return {@Link MoveResult}, VALID if the move may be added
+     */
+    public synchronized MoveResult validateMove(int from, int to) {
+        if (from < 0 || to < 0) {
+            return MoveResult.INVALID;
+        }
+        MoveList legal = this.getLegalMoves();
+        int made = this.turn.size();
+        int[] landings = new int[made + 1];
+        int start = this.pendingLandings(landings);
+        if (made == 0) {
+            start = from;
+        } else if (from != landings[made - 1]) {
+            // Must keep moving the same piece
+            return MoveResult.INVALID;
+        }
+        landings[made] = to;
+        int rowChange = Math.abs(Board.rowOf(to) - Board.rowOf(from));
+        if (legal.find(start, landings, made + 1, false) >= 0) {
+            return MoveResult.VALID;
+        } else if (made > 0 && legal.find(start, landings, made, true) >= 0) {
+            return MoveResult.TOO_MANY_MOVES;
+        } else if (legal.isCapture() && rowChange == 1) {
+            return MoveResult.JUMP_AVAILABLE;
+        } else if (rowChange == 2 && this.turn.isRemoved(Board.jumped(from, to))) {
+            return MoveResult.ALREADY_JUMPED;
+        }
+        return MoveResult.INVALID;
+    }
+
+    /**
+     * Check a move and add it to the turn if it is valid, as one step.
+     *
+     * @param from index of the square moved from, or -1 for a light square
+     * @param to   index of the square moved to, or -1 for a light square
+     * @return {@Link MoveResult}, VALID if the move was added
+     */
+    public synchronized MoveResult tryMove(int from, int to) {
+        MoveResult result = this.validateMove(from, to);
+        if (result == MoveResult.VALID) {
+            this.addMove(from, to);
         }
-        if (this.removedPieces.size() > 0) {
-            this.removedPieces.remove(this.removedPieces.size() - 1);
+        return result;
+    }
+
+    /**
+     * @return True, if moves have been made this turn but they do not finish a legal turn,
+     * such as stopping part way through a multi-jump.
+     */
+    public synchronized boolean hasPartialTurn() {
+        int made = this.turn.size();
+        if (made == 0) {
+            return false;
+        }
+        int[] landings = new int[made];
+        int start = this.pendingLandings(landings);
+        return this.getLegalMoves().find(start, landings, made, true) < 0;
+    }
+
+    /**
+     * Fill in the squares landed on by the moves made so far this turn.
+     *
+     * @param landings array with room for every move made
+     * @return the square the turn started on, or -1 if no moves have been made
+     */
+    private int pendingLandings(int[] landings) {
+        int made = this.turn.size();
+        for (int i = 0; i < made; i++) {
+            landings[i] = this.turn.getSquare(i + 1);
         }
+        return this.turn.getStart();
+    }
+
+    /**
+     * Add a move to the move queue
+     *
+     * @param move move to be added
+     */
+    public synchronized void addMove(Move move) {
+        this.addMove(move.getStart().getSquare(), move.getEnd().getSquare());
+    }
+
+    /**
+     * Add a move to the move queue
+     *
+     * @param from index of the square moved from
+     * @param to   index of the square moved to
+     */
+    public synchronized void addMove(int from, int to) {
+        this.turn.add(from, to);
+    }
+
+    /**
+     * Check to see if a position of an opponent's {@Link Piece} has been removed form the {@Link BoardView}
+     *
+     * @param position The {@Link Position} the opponents {@Link Piece} is sitting on.
+     * @return True, if {@Link Piece} has been taken off of {@Link Space}
+     */
+    public synchronized boolean posRemoved(Position position) {
+        return this.turn.isRemoved(position.getSquare());
+    }
+
+    /**
+     * Back up one move
+     *
+     * @return True, if there was a move to back up.
+     */
+    public synchronized boolean backUp() {
+        return this.turn.undo();
+    }
+
+    /**
+     * @return the number of moves made so far this turn
+     */
+    public synchronized int numOfMovesMade() {
+        return this.turn.size();
     }
 
     /**
@@ -195,8 +435,16 @@ public class Game implements Serializable {
      * @param defaultPos Default {@Link Position} if no initial position.
      * @return {@Link Move}
      */
-    public Position getInitialPosition(Position defaultPos) {
-        return this.board.getInitialPosition() == null ? defaultPos : this.board.getInitialPosition();
+    public synchronized Position getInitialPosition(Position defaultPos) {
+        int start = this.turn.getStart();
+        return start < 0 ? defaultPos : Position.of(start);
+    }
+
+    /**
+     * @return The {@Link Player} whose turn it is.
+     */
+    public synchronized Player getActivePlayer() {
+        return this.redActive ? this.redPlayer : this.whitePlayer;
     }
 
     /**
@@ -205,7 +453,7 @@ public class Game implements Serializable {
      * @param player {@Link Player} being checked.
      * @return True, if active.
      */
-    public boolean isActivePlayer(Player player) {
+    public synchronized boolean isActivePlayer(Player player) {
         Player activePlayer = this.whitePlayer;
         if (this.redActive) {
             activePlayer = this.redPlayer;
@@ -214,29 +462,68 @@ public class Game implements Serializable {
     }
 
     /**
-     * Find out if the {@Linkplain Game} has completed.
+     * Find out if the {@Linkplain Game} has completed. A player loses when they have no
+     * pieces left or when they cannot move on their turn. Once few enough pieces are left
+     * to be in the endgame {@Link Tablebase}, the game is adjudicated from it right away.
      *
      * @return True, if the game is over.
      */
-    public boolean isOver() {
-        boolean foundRed = false;
-        boolean foundWhite = false;
-        for (Row aBoard : this.board) {
-            for (Space anABoard : aBoard) {
-                Piece piece = anABoard.getPiece();
-                if (piece != null) {
-                    if (piece.getColor().equals(Piece.Color.RED)) {
-                        foundRed = true;
-                    } else if (piece.getColor().equals(Piece.Color.WHITE)) {
-                        foundWhite = true;
-                    }
+    public synchronized boolean isOver() {
+        Board state = this.board.getBoard();
+        boolean foundRed = state.count(Piece.Color.RED) > 0;
+        boolean foundWhite = state.count(Piece.Color.WHITE) > 0;
+        if (!foundRed || !foundWhite) {
+            winnerRed = foundRed;
+            return true;
+        }
+        if (this.getLegalMoves().size() == 0) {
+            // Active player is blocked in
+            winnerRed = !redActive;
+            return true;
+        }
+        if (ADJUDICATE_ENDGAMES) {
+            int value = Tablebase.getShared().probe(state, this.getColor());
+            if (value != Tablebase.NOT_FOUND) {
+                // Perfect play decides the game from here.
+                draw = value == Tablebase.DRAW;
+                if (!draw) {
+                    winnerRed = Tablebase.isWin(value) == redActive;
                 }
+                return true;
             }
         }
-        if (!foundRed || !foundWhite) {
-            winnerRed = foundRed;
+        return false;
+    }
+
+    /**
+     * End the game by one of its players resigning.
+     *
+     * @param player the {@Link Player} resigning
+     */
+    public synchronized void resign(Player player) {
+        this.resigned = true;
+        this.winnerRed = !this.redPlayer.equals(player);
+    }
+
+    /**
+     * @return the result as written in Portable Draughts Notation: "1-0" if red won, "0-1"
+     * if white won, "1/2-1/2" for a draw or "*" if the game is not over.
+     */
+    public synchronized String getResult() {
+        if (!this.resigned && !this.isOver()) {
+            return "*";
+        }
+        if (this.draw) {
+            return "1/2-1/2";
         }
-        return !foundRed || !foundWhite;
+        return this.winnerRed ? "1-0" : "0-1";
+    }
+
+    /**
+     * @return True, if the game was adjudicated a draw.
+     */
+    public synchronized boolean isDraw() {
+        return draw;
     }
 
     /**
@@ -244,14 +531,14 @@ public class Game implements Serializable {
      *
      * @return The Color of the Checkers game winner.
      */
-    public Piece.Color getWinnerColor() {
+    public synchronized Piece.Color getWinnerColor() {
         return winnerRed ? Piece.Color.RED : Piece.Color.WHITE;
     }
 
     /**
      * @return True, if a {@Link Move} has been made since the last time checked.
      */
-    public boolean moveMade() {
+    public synchronized boolean moveMade() {
         boolean ret = this.moveFlag;
         this.moveFlag = false;
         return ret;
@@ -260,8 +547,104 @@ public class Game implements Serializable {
     /**
      * run this method on page reload
      */
-    public void reload() {
-        this.removedPieces = new ArrayList<>();
+    public synchronized void reload() {
+        this.turn.clearRemoved();
+    }
+
+    /**
+     * Write the game's state for {@Link GameCodec}: the players' names, whose turn it is,
+     * the packed board, the turns played, any turn in progress and when it was started.
+     *
+     * @param out stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    synchronized void writeState(DataOutput out) throws IOException {
+        out.writeUTF(this.redPlayer.getName());
+        out.writeUTF(this.whitePlayer.getName());
+        out.writeByte((this.redActive ? 1 : 0) | (this.winnerRed ? 2 : 0) | (this.draw ? 4 : 0)
+                | (this.moveFlag ? 8 : 0) | (this.resigned ? 16 : 0));
+        Board state = this.board.getBoard();
+        out.writeInt(state.getPieces(Piece.Color.RED));
+        out.writeInt(state.getPieces(Piece.Color.WHITE));
+        out.writeInt(state.getKings());
+        out.writeShort(this.searchThreads);
+        out.writeInt(this.ply);
+        writePath(out, this.lastTurn);
+        writePath(out, this.turn.getPath());
+        this.moveLog.write(out);
+        out.writeLong(this.created);
+    }
+
+    /**
+     * Read a game written by {@Link #writeState(DataOutput)}.
+     *
+     * @param in      stream to read from
+     * @param version {@Link GameCodec} version it was written with
+     * @return the game
+     * @throws IOException if the stream cannot be read
+     */
+    static Game readState(DataInput in, int version) throws IOException {
+        Game game = new Game(new Player(in.readUTF()), new Player(in.readUTF()));
+        int flags = in.readUnsignedByte();
+        game.redActive = (flags & 1) != 0;
+        game.winnerRed = (flags & 2) != 0;
+        game.draw = (flags & 4) != 0;
+        game.moveFlag = (flags & 8) != 0;
+        game.resigned = (flags & 16) != 0;
+        game.board = new BoardView(new Board(in.readInt(), in.readInt(), in.readInt()));
+        game.searchThreads = Math.max(1, in.readUnsignedShort());
+        game.ply = in.readInt();
+        game.lastTurn = readPath(in);
+        int[] pending = readPath(in);
+        for (int i = 0; i + 1 < pending.length; i++) {
+            game.turn.add(pending[i], pending[i + 1]);
+        }
+        if (version >= 2) {
+            game.moveLog.read(in);
+        }
+        game.created = version >= 3 ? in.readLong() : 0;
+        return game;
+    }
+
+    /**
+     * @param out  stream to write to
+     * @param path squares a piece stood on, each written as a byte
+     */
+    private static void writePath(DataOutput out, int[] path) throws IOException {
+        out.writeByte(path.length);
+        for (int square : path) {
+            out.writeByte(square);
+        }
+    }
+
+    /**
+     * @param in stream to read from
+     * @return squares written by {@Link #writePath(DataOutput, int[])}
+     */
+    private static int[] readPath(DataInput in) throws IOException {
+        int[] path = new int[in.readUnsignedByte()];
+        for (int i = 0; i < path.length; i++) {
+            path[i] = in.readUnsignedByte();
+        }
+        return path;
+    }
+
+    /**
+     * Hold the game's lock while it is written, so a turn in progress on another
+     * thread is never saved half done.
+     */
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+    }
+
+    /**
+     * Games written before moves were logged start with an empty log.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (this.moveLog == null) {
+            this.moveLog = new MoveLog();
+        }
     }
 
 }
@@ -0,0 +1,133 @@
+package com.webcheckers.model;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes a {@Link Game} in a compact, versioned binary form: the players'
+ * names, whose turn it is, the board packed into three 32-square masks, the turns played,
+ * any turn in progress and the {@Link MoveLog} at two bytes a step. A game in the middle
+ * of play takes a few hundred bytes.
+ * <p>
+ * Each game is written as a record of its length, a CRC and then a version number
+ * followed by the game. A record that fails its CRC can be skipped without losing the
+ * records around it, and a version this code does not know is reported rather than
+ * misread.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public final class GameCodec {
+
+    /**
+     * Version of the format written
+     */
+    public static final int VERSION = 3;
+
+    /**
+     * Oldest version still read. Version 1 had no {@Link MoveLog}, and versions before 3
+     * had no creation time.
+     */
+    private static final int MIN_VERSION = 1;
+
+    /**
+     * Largest record read back. Anything claiming to be longer is corrupt.
+     */
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private GameCodec() {
+    }
+
+    /**
+     * @param game a {@Link Game}
+     * @return the game's record: length, CRC, version and game
+     */
+    public static byte[] encode(Game game) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            // Room for the length and CRC, filled in below
+            out.writeLong(0);
+            out.writeByte(VERSION);
+            game.writeState(out);
+        } catch (IOException impossible) {
+            throw new UncheckedIOException(impossible);
+        }
+        byte[] record = bytes.toByteArray();
+        int length = record.length - Long.BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(record, Long.BYTES, length);
+        ByteBuffer.wrap(record).putInt(length).putInt((int) crc.getValue());
+        return record;
+    }
+
+    /**
+     * Write a {@Link Game}'s record.
+     *
+     * @param game the game
+     * @param out  stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public static void write(Game game, DataOutput out) throws IOException {
+        out.write(encode(game));
+    }
+
+    /**
+     * Read a {@Link Game}'s record. The whole record is read even if it is corrupt, so the
+     * stream is left at the next record either way.
+     *
+     * @param in stream to read from
+     * @return the game
+     * @throws StreamCorruptedException if the record fails its CRC or has an unknown version
+     * @throws IOException              if the stream cannot be read
+     */
+    public static Game read(DataInput in) throws IOException {
+        int length = in.readInt();
+        long checksum = in.readInt() & 0xFFFFFFFFL;
+        if (length < 1 || length > MAX_RECORD_BYTES) {
+            throw new StreamCorruptedException("Game record of " + length + " bytes");
+        }
+        byte[] record = new byte[length];
+        in.readFully(record);
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, length);
+        if (crc.getValue() != checksum) {
+            throw new StreamCorruptedException("Game record fails its CRC");
+        }
+        DataInputStream body = new DataInputStream(new ByteArrayInputStream(record));
+        int version = body.readUnsignedByte();
+        if (version < MIN_VERSION || version > VERSION) {
+            throw new StreamCorruptedException("Unknown game record version " + version);
+        }
+        return Game.readState(body, version);
+    }
+
+    /**
+     * Read a {@Link Game}'s record without checking or decoding it, so that can be left to
+     * {@Link #decode(byte[])} until the game is needed.
+     *
+     * @param in stream to read from
+     * @return the record, as made by {@Link #encode(Game)}
+     * @throws StreamCorruptedException if the record's length is impossible
+     * @throws IOException              if the stream cannot be read
+     */
+    public static byte[] readRecord(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 1 || length > MAX_RECORD_BYTES) {
+            throw new StreamCorruptedException("Game record of " + length + " bytes");
+        }
+        byte[] record = new byte[Long.BYTES + length];
+        ByteBuffer.wrap(record).putInt(length);
+        in.readFully(record, Integer.BYTES, Integer.BYTES + length);
+        return record;
+    }
+
+    /**
+     * @param record a {@Link Game}'s record, as made by {@Link #encode(Game)}
+     * @return the game
+     * @throws IOException if the record is corrupt
+     */
+    public static Game decode(byte[] record) throws IOException {
+        return read(new DataInputStream(new ByteArrayInputStream(record)));
+    }
+}
@@ -0,0 +1,151 @@
+package com.webcheckers.model;
+
+/**
+ * Generates every legal turn for one side of a {@link Board}. Captures are forced:
+ * if any piece can jump, only jumps are returned, and each jump is followed through
+ * its whole multi-jump chain. A single piece that reaches the far row is crowned and
+ * its turn ends there.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ * @see MoveList
+ */
+public final class MoveGenerator {
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Generate the legal turns for one side of a {@link Board}.
+     *
+     * @param board board to move on
+     * @param color side to move
+     * @return a new {@link MoveList}
+     */
+    public static MoveList generate(Board board, Piece.Color color) {
+        MoveList list = new MoveList();
+        generate(board.getPieces(color), board.getOpponentPieces(color), board.getKings(),
+                color.equals(Piece.Color.RED), list);
+        return list;
+    }
+
+    /**
+     * Generate the legal turns for a position given as masks.
+     *
+     * @param own      squares of the side to move
+     * @param opponent squares of the other side
+     * @param kings    squares holding kings of either side
+     * @param red      true if the side to move is red
+     * @param list     list to fill; it is cleared first
+     */
+    public static void generate(int own, int opponent, int kings, boolean red, MoveList list) {
+        list.clear();
+        int empty = ~(own | opponent);
+        for (int pieces = own; pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            // The moving piece leaves its square, so a king may land back on it.
+            addJumps(list, square, square, 0L, 0, opponent, empty | (1 << square),
+                    (kings & (1 << square)) != 0, red);
+        }
+        if (list.size() > 0) {
+            return;
+        }
+        for (int pieces = own; pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            boolean king = (kings & (1 << square)) != 0;
+            for (int direction = 0; direction < Board.DIRECTIONS; direction++) {
+                if (!king && isBackward(red, direction)) {
+                    continue;
+                }
+                int to = Board.neighbor(square, direction);
+                if (to >= 0 && (empty & (1 << to)) != 0) {
+                    list.add(square, MoveList.extend(0L, to), 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if one side has any legal turn, without building the turns.
+     *
+     * @param own      squares of the side to move
+     * @param opponent squares of the other side
+     * @param kings    squares holding kings of either side
+     * @param red      true if the side to move is red
+     * @return True, if the side can move.
+     */
+    public static boolean hasMoves(int own, int opponent, int kings, boolean red) {
+        int empty = ~(own | opponent);
+        for (int pieces = own; pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            boolean king = (kings & (1 << square)) != 0;
+            for (int direction = 0; direction < Board.DIRECTIONS; direction++) {
+                if (!king && isBackward(red, direction)) {
+                    continue;
+                }
+                int to = Board.neighbor(square, direction);
+                if (to < 0) {
+                    continue;
+                }
+                if ((empty & (1 << to)) != 0) {
+                    return true;
+                }
+                int landing = Board.jump(square, direction);
+                if (landing >= 0 && (opponent & (1 << to)) != 0 && (empty & (1 << landing)) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Follow every jump chain from a square, adding each finished chain to the list.
+     *
+     * @param list     list to add to
+     * @param start    square the moving piece started the turn on
+     * @param square   square the moving piece is on now
+     * @param path     packed landing squares so far
+     * @param captured squares already captured this turn; they may not be jumped again
+     * @param opponent squares of the other side
+     * @param empty    squares that may be landed on
+     * @param king     true if the moving piece is a king
+     * @param red      true if the moving piece is red
+     */
+    private static void addJumps(MoveList list, int start, int square, long path, int captured,
+                                 int opponent, int empty, boolean king, boolean red) {
+        boolean extended = false;
+        for (int direction = 0; direction < Board.DIRECTIONS; direction++) {
+            if (!king && isBackward(red, direction)) {
+                continue;
+            }
+            int landing = Board.jump(square, direction);
+            if (landing < 0) {
+                continue;
+            }
+            int over = 1 << Board.neighbor(square, direction);
+            if ((opponent & over) == 0 || (captured & over) != 0 || (empty & (1 << landing)) == 0) {
+                continue;
+            }
+            extended = true;
+            long next = MoveList.extend(path, landing);
+            if (!king && ((1 << landing) & (red ? Board.RED_KING_ROW : Board.WHITE_KING_ROW)) != 0) {
+                // Crowning ends the turn.
+                list.add(start, next, captured | over);
+            } else {
+                addJumps(list, start, landing, next, captured | over, opponent, empty, king, red);
+            }
+        }
+        if (!extended && captured != 0) {
+            list.add(start, path, captured);
+        }
+    }
+
+    /**
+     * @param red       true for a red piece
+     * @param direction one of the four diagonal directions
+     * @return True, if a single piece of that color may not move that way.
+     */
+    private static boolean isBackward(boolean red, int direction) {
+        return red != (direction < Board.SOUTH_WEST);
+    }
+}
@@ -0,0 +1,242 @@
+package com.webcheckers.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A <code>MoveList</code> holds complete turns produced by the {@link MoveGenerator}.
+ * Each turn is a starting square and the squares the piece lands on, one per step,
+ * along with a mask of the squares it captures. Turns are kept in primitive arrays
+ * so a list can be cleared and refilled without allocating.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ * @see MoveGenerator
+ */
+public class MoveList {
+
+    /**
+     * A path packs its step count into the low bits followed by five bits per landing square.
+     * A turn can capture at most 12 pieces, so 4 + 12 * 5 bits always fit in a long.
+     */
+    static final int STEP_COUNT_BITS = 4;
+    static final int SQUARE_BITS = 5;
+    static final long STEP_COUNT_MASK = (1L << STEP_COUNT_BITS) - 1;
+    static final long SQUARE_MASK = (1L << SQUARE_BITS) - 1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int size;
+    private int[] from = new int[INITIAL_CAPACITY];
+    private long[] paths = new long[INITIAL_CAPACITY];
+    private int[] captured = new int[INITIAL_CAPACITY];
+
+    /**
+     * Remove every turn, keeping the storage for reuse.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * @return the number of turns in the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Add a turn.
+     *
+     * @param start    starting square
+     * @param path     packed landing squares
+     * @param captures mask of captured squares
+     */
+    void add(int start, long path, int captures) {
+        if (size == from.length) {
+            from = Arrays.copyOf(from, size * 2);
+            paths = Arrays.copyOf(paths, size * 2);
+            captured = Arrays.copyOf(captured, size * 2);
+        }
+        from[size] = start;
+        paths[size] = path;
+        captured[size] = captures;
+        size++;
+    }
+
+    /**
+     * Add a landing square to a packed path.
+     *
+     * @param path   packed path so far
+     * @param square the next landing square
+     * @return the longer path
+     */
+    static long extend(long path, int square) {
+        int steps = (int) (path & STEP_COUNT_MASK);
+        return (path + 1) | ((long) square << (STEP_COUNT_BITS + steps * SQUARE_BITS));
+    }
+
+    /**
+     * @param index turn in the list
+     * @return the square the moving piece starts on
+     */
+    public int getFrom(int index) {
+        return from[index];
+    }
+
+    /**
+     * @param index turn in the list
+     * @return the number of steps (landings) in the turn
+     */
+    public int getSteps(int index) {
+        return (int) (paths[index] & STEP_COUNT_MASK);
+    }
+
+    /**
+     * @param index turn in the list
+     * @param step  step within the turn, from 0
+     * @return the square the piece lands on after that step
+     */
+    public int getStep(int index, int step) {
+        return (int) ((paths[index] >>> (STEP_COUNT_BITS + step * SQUARE_BITS)) & SQUARE_MASK);
+    }
+
+    /**
+     * @param index turn in the list
+     * @return the square the piece finishes the turn on
+     */
+    public int getTo(int index) {
+        return this.getStep(index, this.getSteps(index) - 1);
+    }
+
+    /**
+     * Get a turn as the {@link Move}s a player would make.
+     *
+     * @param index turn in the list
+     * @return {@linkplain List} of {@link Move}s, one per step
+     */
+    public List<Move> getMoves(int index) {
+        return toMoves(from[index], paths[index]);
+    }
+
+    /**
+     * @param start square the piece starts on
+     * @param path  packed landing squares
+     * @return {@linkplain List} of {@link Move}s, one per step
+     */
+    static List<Move> toMoves(int start, long path) {
+        List<Move> moves = new ArrayList<>();
+        int square = start;
+        int steps = (int) (path & STEP_COUNT_MASK);
+        for (int step = 0; step < steps; step++) {
+            int next = (int) ((path >>> (STEP_COUNT_BITS + step * SQUARE_BITS)) & SQUARE_MASK);
+            moves.add(new Move(Position.of(square), Position.of(next)));
+            square = next;
+        }
+        return moves;
+    }
+
+    /**
+     * @param index turn in the list
+     * @return mask of the squares captured by the turn
+     */
+    public int getCaptured(int index) {
+        return captured[index];
+    }
+
+    /**
+     * @param index turn in the list
+     * @param own   squares of the side making the turn
+     * @return squares of that side once the turn is played
+     */
+    public int ownAfter(int index, int own) {
+        return (own & ~(1 << from[index])) | (1 << this.getTo(index));
+    }
+
+    /**
+     * @param index    turn in the list
+     * @param opponent squares of the other side
+     * @return squares of the other side once the turn is played
+     */
+    public int opponentAfter(int index, int opponent) {
+        return opponent & ~captured[index];
+    }
+
+    /**
+     * @param index turn in the list
+     * @param kings squares holding kings of either side
+     * @param red   true if red is making the turn
+     * @return squares holding kings once the turn is played, including a newly crowned piece
+     */
+    public int kingsAfter(int index, int kings, boolean red) {
+        int fromBit = 1 << from[index];
+        int toBit = 1 << this.getTo(index);
+        int after = kings & ~captured[index];
+        if ((after & fromBit) != 0) {
+            return (after & ~fromBit) | toBit;
+        }
+        return (toBit & (red ? Board.RED_KING_ROW : Board.WHITE_KING_ROW)) != 0 ? after | toBit : after;
+    }
+
+    /**
+     * @param index turn in the list
+     * @param hash  {@link Zobrist} hash of the position before the turn
+     * @param kings squares holding kings of either side
+     * @param red   true if red is making the turn
+     * @return hash of the position once the turn is played, with the side to move switched
+     */
+    public long hashAfter(int index, long hash, int kings, boolean red) {
+        int start = from[index];
+        int to = this.getTo(index);
+        boolean king = (kings & (1 << start)) != 0;
+        boolean crowned = king || ((1 << to) & (red ? Board.RED_KING_ROW : Board.WHITE_KING_ROW)) != 0;
+        hash ^= Zobrist.piece(red, king, start) ^ Zobrist.piece(red, crowned, to);
+        for (int captures = captured[index]; captures != 0; captures &= captures - 1) {
+            int square = Integer.numberOfTrailingZeros(captures);
+            hash ^= Zobrist.piece(!red, (kings & (1 << square)) != 0, square);
+        }
+        return hash ^ Zobrist.WHITE_TO_MOVE;
+    }
+
+    /**
+     * @param index turn in the list
+     * @return the packed landing squares of the turn
+     */
+    long getPath(int index) {
+        return paths[index];
+    }
+
+    /**
+     * @return True, if the turns in the list are captures. Captures are forced, so a
+     * list never mixes captures and plain moves.
+     */
+    public boolean isCapture() {
+        return size > 0 && captured[0] != 0;
+    }
+
+    /**
+     * Find a turn that starts with the given steps.
+     *
+     * @param start    square the piece starts on
+     * @param landings squares landed on so far
+     * @param length   number of landings to match
+     * @param complete true to only match turns with exactly <code>length</code> steps
+     * @return index of the first matching turn, or -1 if there is none
+     */
+    public int find(int start, int[] landings, int length, boolean complete) {
+        turns:
+        for (int i = 0; i < size; i++) {
+            int steps = this.getSteps(i);
+            if (from[i] != start || steps < length || (complete && steps != length)) {
+                continue;
+            }
+            for (int step = 0; step < length; step++) {
+                if (this.getStep(i, step) != landings[step]) {
+                    continue turns;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,120 @@
+package com.webcheckers.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+
+/**
+ * A <code>MoveLog</code> holds every step submitted in a {@link Game}, in order. Each step
+ * is packed into one int: the square moved from, the square moved to and a flag on the
+ * first step of each turn, so a whole game fits in a primitive array of a few hundred
+ * bytes.
+ * <p>
+ * A <code>MoveLog</code> is not thread-safe. Each {@link Game} owns one and only touches
+ * it while holding the game's lock.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public final class MoveLog implements Serializable {
+
+    static final int SQUARE_BITS = 5;
+    static final int SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+
+    /**
+     * Set on the first step of each turn
+     */
+    static final int TURN_START = 1 << (2 * SQUARE_BITS);
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] steps = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Add a submitted turn.
+     *
+     * @param path every square the piece stood on, starting where it started
+     */
+    void add(int[] path) {
+        for (int i = 0; i + 1 < path.length; i++) {
+            if (this.size == this.steps.length) {
+                this.steps = Arrays.copyOf(this.steps, this.size * 2);
+            }
+            this.steps[this.size++] = (i == 0 ? TURN_START : 0) | (path[i] << SQUARE_BITS) | path[i + 1];
+        }
+    }
+
+    /**
+     * @return the number of steps in the log
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return a copy of the packed steps, for reading once the game's lock is let go
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(this.steps, this.size);
+    }
+
+    /**
+     * @param step a packed step
+     * @return the square the piece moved from
+     */
+    public static int from(int step) {
+        return (step >>> SQUARE_BITS) & SQUARE_MASK;
+    }
+
+    /**
+     * @param step a packed step
+     * @return the square the piece moved to
+     */
+    public static int to(int step) {
+        return step & SQUARE_MASK;
+    }
+
+    /**
+     * @param step a packed step
+     * @return true if the step starts a turn
+     */
+    public static boolean isTurnStart(int step) {
+        return (step & TURN_START) != 0;
+    }
+
+    /**
+     * Write the log as a count followed by two bytes per step.
+     *
+     * @param out stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeInt(this.size);
+        for (int i = 0; i < this.size; i++) {
+            out.writeShort(this.steps[i]);
+        }
+    }
+
+    /**
+     * Replace the log with one written by {@link #write(DataOutput)}.
+     *
+     * @param in stream to read from
+     * @throws StreamCorruptedException if the count is impossible
+     * @throws IOException              if the stream cannot be read
+     */
+    void read(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new StreamCorruptedException("Move log of " + count + " steps");
+        }
+        this.steps = new int[Math.max(INITIAL_CAPACITY, count)];
+        for (int i = 0; i < count; i++) {
+            this.steps[i] = in.readUnsignedShort();
+        }
+        this.size = count;
+    }
+}
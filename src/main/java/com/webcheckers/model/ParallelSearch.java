@@ -0,0 +1,114 @@
+package com.webcheckers.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Searches one position with several {@link SearchEngine}s at once (Lazy SMP). The
+ * calling thread runs the main search while helper threads search the same position
+ * with different depths and turn orders. The engines share only a {@link TranspositionTable},
+ * so each helper speeds up the others by filling it. Once the main search finishes the
+ * helpers are stopped, and the deepest result found wins.
+ * <p>
+ * Every searching thread holds a permit, the calling thread included, so the number of
+ * threads searching at once never passes the cap, however many games are being played.
+ * A search waits for its own permit, then asks for as many helpers as it wants but only
+ * gets the permits that are free and that no waiting search is queued for.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ * @see SearchEngine
+ */
+public class ParallelSearch {
+
+    private final TranspositionTable table;
+    private final ExecutorService helpers;
+    private final Semaphore permits;
+    private final ThreadLocal<SearchEngine> engines;
+
+    /**
+     * @param table      table shared by every engine
+     * @param maxThreads most threads searching at once across every search, calling
+     *                   threads included
+     */
+    public ParallelSearch(TranspositionTable table, int maxThreads) {
+        this.table = table;
+        this.permits = new Semaphore(Math.max(1, maxThreads), true);
+        int maxHelpers = maxThreads - 1;
+        this.engines = ThreadLocal.withInitial(() -> new SearchEngine(this.table));
+        this.helpers = maxHelpers <= 0 ? null : Executors.newFixedThreadPool(maxHelpers, runnable -> {
+            Thread thread = new Thread(runnable, ParallelSearch.class.getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Pick a turn for one side.
+     *
+     * @param board      the position to search
+     * @param color      side to move
+     * @param timeMillis time budget for the search
+     * @param maxDepth   deepest iteration to start
+     * @param threads    threads wanted, including the calling thread
+     * @return the turn to play, or null if the side has no legal turn
+     */
+    public SearchResult search(Board board, Piece.Color color, long timeMillis, int maxDepth, int threads) {
+        // The main search's permit; waiting in turn, so helpers cannot starve it.
+        this.permits.acquireUninterruptibly();
+        int helperCount = 0;
+        while (helperCount < threads - 1 && !this.permits.hasQueuedThreads() && this.permits.tryAcquire()) {
+            helperCount++;
+        }
+        long start = System.nanoTime();
+        AtomicBoolean abort = new AtomicBoolean();
+        List<Future<SearchResult>> futures = new ArrayList<>(helperCount);
+        try {
+            for (int helper = 1; helper <= helperCount; helper++) {
+                int id = helper;
+                futures.add(this.helpers.submit(() ->
+                        this.engines.get().search(board, color, timeMillis, maxDepth, id, abort)));
+            }
+            SearchResult best = this.engines.get().search(board, color, timeMillis, maxDepth, 0, abort);
+            abort.set(true);
+
+            long nodes = best == null ? 0 : best.getNodes();
+            for (Future<SearchResult> future : futures) {
+                SearchResult result = this.await(future);
+                if (result != null) {
+                    nodes += result.getNodes();
+                    if (best != null && result.getDepth() > best.getDepth()) {
+                        best = result;
+                    }
+                }
+            }
+            return best == null ? null : best.combine(System.nanoTime() - start, nodes, helperCount + 1);
+        } finally {
+            abort.set(true);
+            this.permits.release(helperCount + 1);
+        }
+    }
+
+    /**
+     * Wait for a helper to stop.
+     *
+     * @param future the helper's search
+     * @return the helper's result, or null if it failed
+     */
+    private SearchResult await(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ignored) {
+            // A helper only adds to the table, so the main result stands without it.
+        }
+        return null;
+    }
+}
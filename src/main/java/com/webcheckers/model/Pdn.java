@@ -0,0 +1,94 @@
+package com.webcheckers.model;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes a {@Link Game} in Portable Draughts Notation (PDN), straight from its
+ * {@Link MoveLog}, one move at a time, so a game is never built up as one string.
+ * <p>
+ * Red moves first, so red is written as Black. Squares are numbered 1 to 32 from red's
+ * side of the board, the way English draughts numbers them, and a turn that jumps lists
+ * every square it lands on: <code>22x15x6</code>.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public final class Pdn {
+
+    /**
+     * PDN game type of English draughts
+     */
+    private static final String ENGLISH_DRAUGHTS = "21";
+
+    private static final String EVENT = "WebCheckers";
+
+    private Pdn() {
+    }
+
+    /**
+     * Write a {@Link Game}: its tags, its moves and its result.
+     *
+     * @param game the game
+     * @param out  where to write it
+     * @throws IOException if it cannot be written
+     */
+    public static void write(Game game, Writer out) throws IOException {
+        int[] steps;
+        String result;
+        synchronized (game) {
+            steps = game.getMoveLog();
+            result = game.getResult();
+        }
+        tag(out, "Event", EVENT);
+        tag(out, "Black", game.getRedPlayer().getName());
+        tag(out, "White", game.getWhitePlayer().getName());
+        tag(out, "GameType", ENGLISH_DRAUGHTS);
+        tag(out, "Result", result);
+        out.write('\n');
+        int turns = 0;
+        for (int step : steps) {
+            int from = MoveLog.from(step);
+            int to = MoveLog.to(step);
+            if (MoveLog.isTurnStart(step)) {
+                if (turns % 2 == 0) {
+                    if (turns > 0) {
+                        out.write('\n');
+                    }
+                    out.write(Integer.toString(turns / 2 + 1));
+                    out.write(". ");
+                } else {
+                    out.write(' ');
+                }
+                out.write(Integer.toString(number(from)));
+                turns++;
+            }
+            out.write(Board.jumped(from, to) >= 0 ? 'x' : '-');
+            out.write(Integer.toString(number(to)));
+        }
+        if (turns > 0) {
+            out.write(' ');
+        }
+        out.write(result);
+        out.write("\n\n");
+    }
+
+    /**
+     * @param square index of a {@Link Board} square
+     * @return the square's PDN number
+     */
+    private static int number(int square) {
+        return Board.SQUARES - square;
+    }
+
+    /**
+     * Write a tag pair, escaping quotes and backslashes in its value.
+     */
+    private static void tag(Writer out, String name, String value) throws IOException {
+        out.write('[');
+        out.write(name);
+        out.write(" \"");
+        out.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+        out.write("\"]\n");
+    }
+}
@@ -5,11 +5,16 @@ import java.io.Serializable;
 /**
  * The <code>Piece</code> represents a piece on a checkerboard, it is what makes
  * checkers a game, with the object of capturing all of your opponents <code>Piece</code>s.
+ * <p>
+ * A <code>Piece</code> is immutable and there are only four of them, one for each
+ * {@link Type} and {@link Color}, shared by every board. Get one with
+ * {@link #of(Type, Color)}.
+ * </p>
  *
  * @author <a href='mailto:np9379@rit.edu'>Nathan Page</a>
  * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
  */
-public class Piece implements Serializable {
+public final class Piece implements Serializable {
 
     /**
      * enums which describe the range of possibilities for a <code>Piece</code>,
@@ -21,11 +26,16 @@ public class Piece implements Serializable {
 
     public enum Color {RED, WHITE}
 
+    public static final Piece RED_SINGLE = new Piece(Type.SINGLE, Color.RED);
+    public static final Piece RED_KING = new Piece(Type.KING, Color.RED);
+    public static final Piece WHITE_SINGLE = new Piece(Type.SINGLE, Color.WHITE);
+    public static final Piece WHITE_KING = new Piece(Type.KING, Color.WHITE);
+
     /**
      * these describe a single <code>Piece</code>
      */
-    private Type pieceType;
-    private Color pieceColor;
+    private final Type pieceType;
+    private final Color pieceColor;
 
     /**
      * Constructor for a <code>Piece</code>
@@ -33,11 +43,25 @@ public class Piece implements Serializable {
      * @param pieceType  type of a <code>Piece</code>
      * @param pieceColor the color of a <code>Piece</code>
      */
-    public Piece(Type pieceType, Color pieceColor) {
+    private Piece(Type pieceType, Color pieceColor) {
         this.pieceType = pieceType;
         this.pieceColor = pieceColor;
     }
 
+    /**
+     * Get the shared <code>Piece</code> of a type and color.
+     *
+     * @param pieceType  type of a <code>Piece</code>
+     * @param pieceColor the color of a <code>Piece</code>
+     * @return one of the four <code>Piece</code>s
+     */
+    public static Piece of(Type pieceType, Color pieceColor) {
+        if (pieceColor == Color.RED) {
+            return pieceType == Type.KING ? RED_KING : RED_SINGLE;
+        }
+        return pieceType == Type.KING ? WHITE_KING : WHITE_SINGLE;
+    }
+
     /**
      * A getter for the type of the <code>Piece</code> in question,
      * SINGLE or KING
@@ -59,17 +83,29 @@ public class Piece implements Serializable {
     }
 
     /**
-     * Set piece {@Link Type} to King.
+     * Get the king of this <code>Piece</code>'s {@Link Color}. The piece itself does not
+     * change, so put the returned piece on the board in its place.
+     *
+     * @return the king <code>Piece</code> of the same color
+     */
+    public Piece kingMe() {
+        return of(Type.KING, pieceColor);
+    }
+
+    /**
+     * Keep the four shared instances unique when a <code>Piece</code> is deserialized.
+     *
+     * @return the shared <code>Piece</code> of this type and color
      */
-    public void kingMe() {
-        this.pieceType = Type.KING;
+    private Object readResolve() {
+        return of(pieceType, pieceColor);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized String toString() {
+    public String toString() {
         return "{Piece " + pieceType + "," + pieceColor + "}";
     }
 }
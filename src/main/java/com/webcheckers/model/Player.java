@@ -4,6 +4,7 @@ import java.io.Serializable;
 import java.util.Objects;
 import java.util.logging.Logger;
 
+import static com.webcheckers.util.Attributes.COMPUTER_NAME;
 import static com.webcheckers.util.Attributes.PLAYER_CREATED_MSG;
 
 /**
@@ -40,6 +41,16 @@ public class Player implements Serializable {
         return userName;
     }
 
+    /**
+     * Returns true if this player is played by the computer. The computer's name
+     * cannot be signed in with, since it is not made of letters, numbers and spaces only.
+     *
+     * @return true for the computer player
+     */
+    public boolean isComputer() {
+        return COMPUTER_NAME.equals(userName);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -5,12 +5,28 @@ import java.util.Objects;
 
 /**
  * A <code>Position</code> is the location of a piece on the {@link BoardView}
+ * <p>
+ * The game works on {@link Board} square indexes internally; a <code>Position</code> is
+ * only built where a location is read from or written to JSON. {@link #of(int)} returns a
+ * shared <code>Position</code> for each dark square, so converting a square never allocates.
+ * </p>
  *
  * @author <a href='mailto:np@9379@rit.edu>Nathan Page</a>
  * @see BoardView
  */
 public class Position implements Serializable {
 
+    /**
+     * The <code>Position</code> of every dark square, by square index
+     */
+    private static final Position[] SQUARES = new Position[Board.SQUARES];
+
+    static {
+        for (int square = 0; square < Board.SQUARES; square++) {
+            SQUARES[square] = new Position(Board.rowOf(square), Board.cellOf(square));
+        }
+    }
+
     /**
      * A <code>Position</code> is described by a <code>row</code>
      * and a <code>col</code> (column), like (x, y) on a grid
@@ -31,6 +47,24 @@ public class Position implements Serializable {
         this.cell = cell;
     }
 
+    /**
+     * Get the shared <code>Position</code> of a square. It must not be changed.
+     *
+     * @param square index of a dark square, from 0 to 31
+     * @return the <code>Position</code> of the square
+     */
+    public static Position of(int square) {
+        return SQUARES[square];
+    }
+
+    /**
+     * @return the {@link Board} index of this <code>Position</code>, or -1 if it is a
+     * light square or off the board
+     */
+    public int getSquare() {
+        return Board.square(row, cell);
+    }
+
     /**
      * A getter for the <code>row</code> variable
      *
@@ -0,0 +1,174 @@
+package com.webcheckers.model;
+
+/**
+ * A <code>Replay</code> finds the board at any ply of a finished {@link Game}. It keeps
+ * the game's {@link MoveLog} steps as the deltas between plies, plus a keyframe of the
+ * board every few plies, so seeking to a ply starts from the keyframe at or before it and
+ * plays fewer turns than the keyframe interval, however long the game.
+ * <p>
+ * A <code>Replay</code> never changes once built, so it is safe to share between
+ * request threads.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public final class Replay {
+
+    /**
+     * Ints per keyframe: red, white and king masks
+     */
+    private static final int KEYFRAME_INTS = 3;
+
+    private final String redName;
+    private final String whiteName;
+    private final String result;
+    private final long created;
+    private final int interval;
+
+    /**
+     * Packed {@link MoveLog} steps
+     */
+    private final int[] steps;
+
+    /**
+     * Index in {@link #steps} of the first step of each ply, then the number of steps
+     */
+    private final int[] plyStart;
+
+    /**
+     * Board masks before every ply that is a multiple of {@link #interval}
+     */
+    private final int[] keyframes;
+
+    /**
+     * Build the replay of a game from its {@link MoveLog}, starting from the opening position.
+     *
+     * @param game     the game
+     * @param interval plies between keyframes
+     */
+    public Replay(Game game, int interval) {
+        this.interval = Math.max(1, interval);
+        synchronized (game) {
+            this.redName = game.getRedPlayer().getName();
+            this.whiteName = game.getWhitePlayer().getName();
+            this.result = game.getResult();
+            this.created = game.getCreated();
+            this.steps = game.getMoveLog();
+        }
+        int plies = 0;
+        for (int step : this.steps) {
+            if (MoveLog.isTurnStart(step)) {
+                plies++;
+            }
+        }
+        this.plyStart = new int[plies + 1];
+        for (int i = 0, ply = 0; i < this.steps.length; i++) {
+            if (MoveLog.isTurnStart(this.steps[i])) {
+                this.plyStart[ply++] = i;
+            }
+        }
+        this.plyStart[plies] = this.steps.length;
+
+        this.keyframes = new int[(plies / this.interval + 1) * KEYFRAME_INTS];
+        Board board = new Board();
+        for (int ply = 0; ply <= plies; ply++) {
+            if (ply % this.interval == 0) {
+                int keyframe = ply / this.interval * KEYFRAME_INTS;
+                this.keyframes[keyframe] = board.getPieces(Piece.Color.RED);
+                this.keyframes[keyframe + 1] = board.getPieces(Piece.Color.WHITE);
+                this.keyframes[keyframe + 2] = board.getKings();
+            }
+            if (ply < plies) {
+                this.play(board, ply);
+            }
+        }
+    }
+
+    /**
+     * @param ply ply from 0, the opening position, to {@link #getPlies()}, the final one
+     * @return a new {@link Board} as it stood before that ply was played
+     * @throws IndexOutOfBoundsException if the game has no such ply
+     */
+    public Board getBoard(int ply) {
+        if (ply < 0 || ply > this.getPlies()) {
+            throw new IndexOutOfBoundsException("Ply " + ply + " of " + this.getPlies());
+        }
+        int keyframe = ply / this.interval * KEYFRAME_INTS;
+        Board board = new Board(this.keyframes[keyframe], this.keyframes[keyframe + 1], this.keyframes[keyframe + 2]);
+        for (int played = ply - ply % this.interval; played < ply; played++) {
+            this.play(board, played);
+        }
+        return board;
+    }
+
+    /**
+     * @param ply ply from 1 to {@link #getPlies()}
+     * @return every square the piece stood on in the turn leading to that ply, or an empty
+     * array for the opening position
+     */
+    public int[] getTurnBefore(int ply) {
+        if (ply <= 0 || ply > this.getPlies()) {
+            return new int[0];
+        }
+        int first = this.plyStart[ply - 1];
+        int last = this.plyStart[ply];
+        int[] path = new int[last - first + 1];
+        path[0] = MoveLog.from(this.steps[first]);
+        for (int i = first; i < last; i++) {
+            path[i - first + 1] = MoveLog.to(this.steps[i]);
+        }
+        return path;
+    }
+
+    /**
+     * Play one ply's steps on a board, jumping pieces and crowning as they go.
+     */
+    private void play(Board board, int ply) {
+        for (int i = this.plyStart[ply]; i < this.plyStart[ply + 1]; i++) {
+            int from = MoveLog.from(this.steps[i]);
+            int to = MoveLog.to(this.steps[i]);
+            int jumped = Board.jumped(from, to);
+            if (jumped >= 0) {
+                board.removePiece(jumped);
+            }
+            board.move(from, to);
+        }
+    }
+
+    /**
+     * @return the number of plies played
+     */
+    public int getPlies() {
+        return this.plyStart.length - 1;
+    }
+
+    /**
+     * @param ply a ply of the game
+     * @return the {@link Piece.Color} to move at that ply. Red moves first.
+     */
+    public static Piece.Color colorAt(int ply) {
+        return ply % 2 == 0 ? Piece.Color.RED : Piece.Color.WHITE;
+    }
+
+    public String getRedName() {
+        return this.redName;
+    }
+
+    public String getWhiteName() {
+        return this.whiteName;
+    }
+
+    /**
+     * @return when the game was started, in milliseconds since the epoch, or 0 if unknown
+     */
+    public long getCreated() {
+        return this.created;
+    }
+
+    /**
+     * @return the result as written in Portable Draughts Notation
+     */
+    public String getResult() {
+        return this.result;
+    }
+}
@@ -1,68 +1,46 @@
 package com.webcheckers.model;
 
-import java.io.Serializable;
 import java.util.Iterator;
 
 import static com.webcheckers.util.Attributes.CHECKERBOARD_SPACES;
-import static java.lang.Boolean.TRUE;
 
 /**
  * <code>Row</code> is the second level of the {@link BoardView} compound object. A <code>Row</code>
- * contains an array of eight {@link Space}s. It implements {@link Iterable} so that it can be
- * displayed by FreeMarker.
+ * is a read-only view of eight {@link Space}s of a {@link Board}. It implements {@link Iterable}
+ * so that it can be displayed by FreeMarker.
  *
  * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
  * @author <a href='mailto:np9379@rit.edu'>Nathan Page</a>
  * @see BoardView
  * @see Space
  */
-public class Row implements Iterable<Space>, Serializable {
+public class Row implements Iterable<Space> {
 
     /**
-     * <code>index</code> is the vertical location of the <code>Row</code> in question
+     * The <code>Board</code> this <code>Row</code> reads from
      */
-    private int index;
-    private boolean isFlipped;
+    private final Board board;
 
     /**
-     * The array of <code>Space</code>s to be filled by the constructor
+     * <code>index</code> is the vertical location of the <code>Row</code> in question
      */
-    private Space[] spaces = new Space[CHECKERBOARD_SPACES];
+    private final int index;
+    private final boolean isFlipped;
 
     /**
      * Create a new <code>Row</code> for the {@link BoardView}. Each <code>Row</code>
-     * is composed of 8 {@link Space}s, alternating dark and light. At the moment this
-     * constructor also sets up the game to be played. This may be changed in subsequent
-     * versions.
+     * is composed of 8 {@link Space}s, alternating dark and light.
      *
-     * @param index vertical position of the <code>Row</code> on the <code>BoardView</code>
+     * @param board     the {@link Board} holding the pieces
+     * @param index     vertical position of the <code>Row</code> on the <code>BoardView</code>
+     * @param isFlipped whether the <code>Row</code> is iterated from the white player's side
      * @see BoardView
      * @see Space
      */
-    public Row(int index, boolean isFlipped) {
+    public Row(Board board, int index, boolean isFlipped) {
+        this.board = board;
         this.index = index;
         this.isFlipped = isFlipped;
-        for (int i = 0; i < CHECKERBOARD_SPACES; i++) {
-            // Alternating spaces on each row are dark and therefore valid locations to set a piece.
-            if (((index % 2 == 0 && i % 2 == 1) || (index % 2 == 1 && i % 2 == 0)) && (index > 4)) {
-                // Dark space with red piece
-                Space s = new Space(i, TRUE);
-                s.setPiece(new Piece(Piece.Type.SINGLE, Piece.Color.RED));
-                spaces[i] = s;
-            } else if (((index % 2 == 0 && i % 2 == 1) || (index % 2 == 1 && i % 2 == 0)) && (index < 3)) {
-                // Dark space with white piece
-                Space s = new Space(i, TRUE);
-                s.setPiece(new Piece(Piece.Type.SINGLE, Piece.Color.WHITE));
-                spaces[i] = s;
-                // In set up, the two middle rows are left empty
-            } else if ((index == 4 && i % 2 == 1) || (index == 3 && i % 2 == 0)) {
-                // Dark space with no piece
-                spaces[i] = new Space(i, TRUE);
-            } else {
-                // light space (no piece)
-                spaces[i] = new Space(i);
-            }
-        }
     }
 
     /**
@@ -80,7 +58,10 @@ public class Row implements Iterable<Space>, Serializable {
      * @return cell at index
      */
     public Space getCellAt(int index) {
-        return spaces[index];
+        if (index < 0 || index >= CHECKERBOARD_SPACES) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        return new Space(this.board, this.index, index);
     }
 
     /**
@@ -128,30 +109,11 @@ public class Row implements Iterable<Space>, Serializable {
         @Override
         public Space next() {
             if (isFlipped) {
-                return spaces[--current];
+                return getCellAt(--current);
             } else {
-                return spaces[current++];
+                return getCellAt(current++);
             }
         }
     }
 
-    /**
-     * Add a piece to the row
-     *
-     * @param piece The {@Link Piece} to be added
-     * @param space The number of {@Linkplain int} space it is moving ot on the {@Link Row}.
-     */
-    public void addPiece(Piece piece, int space) {
-        spaces[space].setPiece(piece);
-    }
-
-    /**
-     * Remove a piece from the row.
-     *
-     * @param space The {@Linkplain int} space to remove it from.
-     */
-    public void removePiece(int space) {
-        spaces[space].removePiece();
-    }
-
 }
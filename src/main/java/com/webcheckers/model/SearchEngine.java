@@ -0,0 +1,336 @@
+package com.webcheckers.model;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An alpha-beta search that picks a turn for one side of a {@link Board}. It deepens
+ * one ply at a time until its time budget runs out and keeps the best turn from the
+ * deepest search that finished. At the horizon it keeps following captures, since they
+ * are forced, before scoring a position. Results are kept in a {@link TranspositionTable}
+ * so positions reached again, by another order of turns or in a later iteration, are not
+ * searched twice. Positions in the endgame {@link Tablebase} are scored from it exactly.
+ * <p>
+ * A <code>SearchEngine</code> reuses its move lists between searches, so one instance
+ * must only be used by one thread at a time. Several engines can search the same position
+ * at once through a {@link ParallelSearch}.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ * @see SearchResult
+ */
+public class SearchEngine {
+
+    /**
+     * Deepest ply the search, including captures past the horizon, can reach
+     */
+    static final int MAX_PLY = 128;
+
+    /**
+     * Scores, in hundredths of a single piece
+     */
+    static final int WIN = 100_000;
+    private static final int INFINITY = WIN + MAX_PLY;
+    private static final int WIN_BOUND = WIN - 1000;
+    private static final int SINGLE_VALUE = 100;
+    private static final int KING_VALUE = 150;
+    private static final int ADVANCED_VALUE = 4;
+    private static final int BACK_ROW_VALUE = 6;
+
+    /**
+     * The half of the board nearer each side's crowning row
+     */
+    private static final int NORTH_HALF = 0x0000FFFF;
+    private static final int SOUTH_HALF = 0xFFFF0000;
+
+    /**
+     * How many positions to visit between checks of the clock
+     */
+    private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+    private final MoveList[] lists = new MoveList[MAX_PLY];
+    private final TranspositionTable table;
+    private final Tablebase tablebase;
+    private long nodes;
+    private long deadline;
+    private AtomicBoolean abort;
+    private boolean stopped;
+
+    /**
+     * Create an engine that uses the {@link TranspositionTable} shared by every search.
+     */
+    public SearchEngine() {
+        this(TranspositionTable.getShared());
+    }
+
+    /**
+     * @param table table to keep search results in
+     */
+    public SearchEngine(TranspositionTable table) {
+        this(table, Tablebase.getShared());
+    }
+
+    /**
+     * @param table     table to keep search results in
+     * @param tablebase endgame results to score small positions from
+     */
+    public SearchEngine(TranspositionTable table, Tablebase tablebase) {
+        this.table = table;
+        this.tablebase = tablebase;
+        for (int i = 0; i < MAX_PLY; i++) {
+            this.lists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Pick a turn for one side.
+     *
+     * @param board      the position to search
+     * @param color      side to move
+     * @param timeMillis time budget for the search
+     * @param maxDepth   deepest iteration to start
+     * @return the turn to play, or null if the side has no legal turn
+     */
+    public SearchResult search(Board board, Piece.Color color, long timeMillis, int maxDepth) {
+        return this.search(board, color, timeMillis, maxDepth, 0, new AtomicBoolean());
+    }
+
+    /**
+     * Pick a turn for one side, as one of several engines searching the same position.
+     * Helpers start at different depths and try the turns in a different order, so that
+     * between them they fill the shared table with different parts of the tree.
+     *
+     * @param board      the position to search
+     * @param color      side to move
+     * @param timeMillis time budget for the search
+     * @param maxDepth   deepest iteration to start
+     * @param helper     0 for the main search, or a helper number from 1
+     * @param abort      set by another thread to stop the search early
+     * @return the turn to play, or null if the side has no legal turn
+     */
+    SearchResult search(Board board, Piece.Color color, long timeMillis, int maxDepth, int helper,
+                        AtomicBoolean abort) {
+        boolean red = color.equals(Piece.Color.RED);
+        int own = board.getPieces(color);
+        int opponent = board.getOpponentPieces(color);
+        int kings = board.getKings();
+        long hash = red ? board.getHash() : board.getHash() ^ Zobrist.WHITE_TO_MOVE;
+
+        long start = System.nanoTime();
+        this.deadline = start + timeMillis * 1_000_000L;
+        this.nodes = 0;
+        this.abort = abort;
+        this.stopped = false;
+        if (helper == 0) {
+            this.table.newSearch();
+        }
+
+        MoveList root = this.lists[0];
+        MoveGenerator.generate(own, opponent, kings, red, root);
+        if (root.size() == 0) {
+            return null;
+        }
+        int[] order = new int[root.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (i + helper) % order.length;
+        }
+        int bestIndex = 0;
+        int bestScore = 0;
+        int bestDepth = 0;
+        if (root.size() > 1) {
+            for (int depth = 1 + helper % 2; depth <= maxDepth && !this.stopped; depth++) {
+                int alpha = -INFINITY;
+                int iterationBest = -1;
+                for (int i = 0; i < order.length; i++) {
+                    int index = order[i];
+                    int score = -this.alphaBeta(root.opponentAfter(index, opponent), root.ownAfter(index, own),
+                            root.kingsAfter(index, kings, red), root.hashAfter(index, hash, kings, red), !red,
+                            depth - 1, 1, -INFINITY, -alpha);
+                    if (this.stopped) {
+                        break;
+                    }
+                    if (score > alpha) {
+                        alpha = score;
+                        iterationBest = i;
+                    }
+                }
+                if (this.stopped || iterationBest < 0) {
+                    break;
+                }
+                // Search the best turn first in the next iteration.
+                int best = order[iterationBest];
+                System.arraycopy(order, 0, order, 1, iterationBest);
+                order[0] = best;
+                bestIndex = best;
+                bestScore = alpha;
+                bestDepth = depth;
+                if (Math.abs(alpha) >= WIN_BOUND) {
+                    // Found a forced win or loss; deeper searches will not change it.
+                    break;
+                }
+            }
+        }
+        return new SearchResult(root.getFrom(bestIndex), root.getPath(bestIndex), bestScore, bestDepth,
+                this.nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Score a position for the side to move with a fixed-depth alpha-beta search.
+     */
+    private int alphaBeta(int own, int opponent, int kings, long hash, boolean red, int depth, int ply,
+                          int alpha, int beta) {
+        if (this.tick()) {
+            return 0;
+        }
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return this.quiesce(own, opponent, kings, red, ply, alpha, beta);
+        }
+        int known = this.probe(own, opponent, kings, red, ply);
+        if (known != Tablebase.NOT_FOUND) {
+            return known;
+        }
+        long entry = this.table.probe(hash);
+        int hashMove = TranspositionTable.NO_MOVE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.getMove(entry);
+            if (TranspositionTable.getDepth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.getScore(entry), ply);
+                int bound = TranspositionTable.getBound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+        MoveList list = this.lists[ply];
+        MoveGenerator.generate(own, opponent, kings, red, list);
+        if (list.size() == 0) {
+            // No pieces or no moves: the side to move has lost.
+            return -WIN + ply;
+        }
+        if (hashMove >= list.size()) {
+            hashMove = TranspositionTable.NO_MOVE;
+        }
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = TranspositionTable.NO_MOVE;
+        // Search the table's best turn first, then the rest in order.
+        for (int n = hashMove == TranspositionTable.NO_MOVE ? 0 : -1; n < list.size(); n++) {
+            int i = n < 0 ? hashMove : n;
+            if (n >= 0 && i == hashMove) {
+                continue;
+            }
+            int score = -this.alphaBeta(list.opponentAfter(i, opponent), list.ownAfter(i, own),
+                    list.kingsAfter(i, kings, red), list.hashAfter(i, hash, kings, red), !red,
+                    depth - 1, ply + 1, -beta, -alpha);
+            if (this.stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = i;
+            }
+            if (score >= beta) {
+                break;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        int bound = bestScore >= beta ? TranspositionTable.LOWER
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        this.table.store(hash, toTable(bestScore, ply), depth, bound,
+                bestMove < TranspositionTable.NO_MOVE ? bestMove : TranspositionTable.NO_MOVE);
+        return bestScore;
+    }
+
+    /**
+     * Win and loss scores count plies from the root; the table holds them counted from
+     * the stored position instead, so they stay right when reached at another ply.
+     */
+    private static int toTable(int score, int ply) {
+        return score >= WIN_BOUND ? score + ply : score <= -WIN_BOUND ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return score >= WIN_BOUND ? score - ply : score <= -WIN_BOUND ? score + ply : score;
+    }
+
+    /**
+     * Score a position from the endgame {@link Tablebase}, counting a win or loss from the root.
+     *
+     * @return the score, or {@link Tablebase#NOT_FOUND} if the position is not in the tablebase
+     */
+    private int probe(int own, int opponent, int kings, boolean red, int ply) {
+        int value = this.tablebase.probe(own, opponent, kings, red);
+        if (value == Tablebase.NOT_FOUND || value == Tablebase.DRAW) {
+            return value;
+        }
+        int plies = ply + Tablebase.distance(value);
+        return Tablebase.isWin(value) ? WIN - plies : -WIN + plies;
+    }
+
+    /**
+     * Score a position past the horizon, following captures until the position is quiet.
+     */
+    private int quiesce(int own, int opponent, int kings, boolean red, int ply, int alpha, int beta) {
+        int known = this.probe(own, opponent, kings, red, ply);
+        if (known != Tablebase.NOT_FOUND) {
+            return known;
+        }
+        MoveList list = this.lists[ply];
+        MoveGenerator.generate(own, opponent, kings, red, list);
+        if (list.size() == 0) {
+            return -WIN + ply;
+        }
+        if (!list.isCapture() || ply >= MAX_PLY - 1) {
+            return evaluate(own, opponent, kings, red);
+        }
+        // Captures are forced, so there is no standing pat.
+        for (int i = 0; i < list.size(); i++) {
+            if (this.tick()) {
+                return 0;
+            }
+            int score = -this.quiesce(list.opponentAfter(i, opponent), list.ownAfter(i, own),
+                    list.kingsAfter(i, kings, red), !red, ply + 1, -beta, -alpha);
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    /**
+     * Count a visited position and check the clock now and then.
+     *
+     * @return True, if the search is out of time or was aborted.
+     */
+    private boolean tick() {
+        if (++this.nodes % CLOCK_CHECK_INTERVAL == 0 && (System.nanoTime() > this.deadline || this.abort.get())) {
+            this.stopped = true;
+        }
+        return this.stopped;
+    }
+
+    /**
+     * Score a quiet position for the side to move: material, men that have crossed
+     * the middle of the board and men still guarding their own back row.
+     */
+    static int evaluate(int own, int opponent, int kings, boolean red) {
+        int ownSingles = own & ~kings;
+        int opponentSingles = opponent & ~kings;
+        int score = SINGLE_VALUE * (Integer.bitCount(ownSingles) - Integer.bitCount(opponentSingles))
+                + KING_VALUE * (Integer.bitCount(own & kings) - Integer.bitCount(opponent & kings));
+        int ownAdvanced = red ? NORTH_HALF : SOUTH_HALF;
+        int ownBackRow = red ? Board.WHITE_KING_ROW : Board.RED_KING_ROW;
+        int opponentBackRow = red ? Board.RED_KING_ROW : Board.WHITE_KING_ROW;
+        score += ADVANCED_VALUE * (Integer.bitCount(ownSingles & ownAdvanced)
+                - Integer.bitCount(opponentSingles & ~ownAdvanced));
+        score += BACK_ROW_VALUE * (Integer.bitCount(ownSingles & ownBackRow)
+                - Integer.bitCount(opponentSingles & opponentBackRow));
+        return score;
+    }
+}
@@ -0,0 +1,129 @@
+package com.webcheckers.model;
+
+import java.util.List;
+
+/**
+ * The turn chosen by a {@link SearchEngine}, along with statistics about the search
+ * that found it.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ * @see SearchEngine
+ */
+public class SearchResult {
+
+    private final int from;
+    private final long path;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedNanos;
+    private final int threads;
+
+    SearchResult(int from, long path, int score, int depth, long nodes, long elapsedNanos) {
+        this(from, path, score, depth, nodes, elapsedNanos, 1);
+    }
+
+    SearchResult(int from, long path, int score, int depth, long nodes, long elapsedNanos, int threads) {
+        this.from = from;
+        this.path = path;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+        this.threads = threads;
+    }
+
+    /**
+     * Combine the results of several engines that searched the same position.
+     *
+     * @param elapsedNanos time the whole search took
+     * @param nodes        positions visited by every engine
+     * @param threads      number of engines
+     * @return this result with the combined statistics
+     */
+    SearchResult combine(long elapsedNanos, long nodes, int threads) {
+        return new SearchResult(from, path, score, depth, nodes, elapsedNanos, threads);
+    }
+
+    /**
+     * @return the square the chosen turn starts on
+     */
+    public int getFrom() {
+        return from;
+    }
+
+    /**
+     * @return the number of steps in the chosen turn
+     */
+    public int getSteps() {
+        return (int) (path & MoveList.STEP_COUNT_MASK);
+    }
+
+    /**
+     * @param step step within the turn, from 0
+     * @return the square landed on after that step
+     */
+    public int getStep(int step) {
+        return (int) ((path >>> (MoveList.STEP_COUNT_BITS + step * MoveList.SQUARE_BITS)) & MoveList.SQUARE_MASK);
+    }
+
+    /**
+     * Get the chosen turn as the {@link Move}s a player would have made.
+     *
+     * @return {@linkplain List} of {@link Move}s, one per step
+     */
+    public List<Move> getMoves() {
+        return MoveList.toMoves(from, path);
+    }
+
+    /**
+     * @return score of the chosen turn for the side that moved, in hundredths of a single piece
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return the deepest iteration that finished
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the number of threads that searched
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return the number of positions visited
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return time spent searching, in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * @return positions visited per second
+     */
+    public long getNodesPerSecond() {
+        return elapsedNanos == 0 ? nodes : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("depth %d, score %d, %d nodes in %d ms (%d nps, %d threads)",
+                depth, score, nodes, this.getElapsedMillis(), this.getNodesPerSecond(), threads);
+    }
+}
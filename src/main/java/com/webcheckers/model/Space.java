@@ -1,80 +1,45 @@
 package com.webcheckers.model;
 
-import java.io.Serializable;
-
-import static java.lang.Boolean.FALSE;
-import static java.lang.Boolean.TRUE;
-
 /**
  * A <code>Space</code> defines the "location" on the {@link BoardView}
  * where the game takes place. <code>Space</code>s can be dark or light, and
- * they can contain a {@link Piece} or not.
+ * they can contain a {@link Piece} or not. A <code>Space</code> is a read-only
+ * view of one square of a {@link Board}.
  *
  * @author <a href='mailto:np9379@rit.edu'>Nathan Page</a>
  * @see BoardView
  * @see Piece
  */
-public class Space implements Serializable {
-
-    /**
-     * Defines the horizontal location of the <code>Space</code>
-     */
-    private int cellIdx;
+public class Space {
 
     /**
-     * These taken together describe the state of the <code>Space</code>
-     * Dark, empty spaces can have <code>Piece</code>s placed upon them;
-     * in any other state they cannot.
+     * The <code>Board</code> this <code>Space</code> reads from
      */
-    private boolean isDark = FALSE;
-    private boolean isEmpty = TRUE;
+    private final Board board;
 
     /**
-     * This field is null if there is no <code>Piece</code> on the space
+     * Defines the vertical location of the <code>Space</code>
      */
-    private Piece piece;
+    private final int rowIdx;
 
     /**
-     * A constructor which produces a single light <code>Space</code>
-     *
-     * @param cellIdx horizontal location of the <code>Space</code>
+     * Defines the horizontal location of the <code>Space</code>
      */
-    public Space(int cellIdx) {
-        this.cellIdx = cellIdx;
-    }
+    private final int cellIdx;
 
     /**
-     * A constructor which produces a <code>Space</code> that can be played upon (or not).
+     * A constructor which produces a view of the <code>Space</code> at the given location
      *
+     * @param board   the {@link Board} holding the pieces
+     * @param rowIdx  vertical location of the <code>Space</code>
      * @param cellIdx horizontal location of the <code>Space</code>
-     * @param isDark  whether the <code>Space</code> is dark or light
      */
-    public Space(int cellIdx, boolean isDark) {
-        this.isDark = isDark;
+    public Space(Board board, int rowIdx, int cellIdx) {
+        this.board = board;
+        this.rowIdx = rowIdx;
         this.cellIdx = cellIdx;
     }
 
-    /**
-     * This method places a <code>Piece</code> on the <code>Space</code>,
-     * if it <code>isValid</code>
-     *
-     * @param piece
-     */
-    public void setPiece(Piece piece) {
-        if (this.isValid()) {
-            this.piece = piece;
-            isEmpty = false;
-        }
-    }
-
-    /**
-     * A method to remove a <code>Piece</code> from the <code>Space</code>
-     */
-    public void removePiece() {
-        isEmpty = true;
-        piece = null;
-    }
-
     /**
      * A getter for the horizontal location of the <code>Space</code>
      *
@@ -90,7 +55,8 @@ public class Space implements Serializable {
      * @return whether the space is both dark and empty
      */
     public boolean isValid() {
-        return (isDark && isEmpty);
+        int square = Board.square(rowIdx, cellIdx);
+        return square >= 0 && board.isEmpty(square);
     }
 
     /**
@@ -99,10 +65,6 @@ public class Space implements Serializable {
      * @return the <code>Piece</code> in question (if it exists)
      */
     public Piece getPiece() {
-        if (!isEmpty) {
-            return piece;
-        } else {
-            return null;
-        }
+        return board.getPiece(rowIdx, cellIdx);
     }
 }
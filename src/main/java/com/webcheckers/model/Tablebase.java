@@ -0,0 +1,209 @@
+package com.webcheckers.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+import static com.webcheckers.util.Attributes.TABLEBASE_FILE_PATH;
+import static com.webcheckers.util.Attributes.getLogger;
+
+/**
+ * Endgame results for every position with a few pieces, read from a file made by
+ * {@link com.webcheckers.tools.TablebaseGenerator}. The file is mapped into memory rather
+ * than read onto the heap, so the operating system pages in only what is probed.
+ * <p>
+ * Each position is one byte: 0 for a draw, <code>n</code> &gt; 0 for a win in
+ * <code>n</code> plies, or <code>-(n + 1)</code> for a loss in <code>n</code> plies, all
+ * for the side to move. The file starts with a header and a directory giving where each
+ * material signature's bytes begin:
+ * </p>
+ * <pre>
+ *   int  MAGIC, int VERSION, int max pieces, int signature count
+ *   per signature: int signature, long offset, long size
+ *   the bytes of each signature, in directory order
+ * </pre>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ * @see TablebaseIndex
+ */
+public class Tablebase {
+    private static final Logger LOG = getLogger(Tablebase.class);
+
+    public static final int MAGIC = 0x57435442;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 4 * Integer.BYTES;
+    public static final int DIRECTORY_ENTRY_BYTES = Integer.BYTES + 2 * Long.BYTES;
+
+    /**
+     * Stored values: a draw, and the marker for an index that is not a real position
+     */
+    public static final byte DRAW = 0;
+    public static final byte INVALID = Byte.MIN_VALUE;
+
+    /**
+     * Returned by a probe when the position is not in the tablebase
+     */
+    public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    private static Tablebase shared;
+
+    private final ByteBuffer data;
+    private final int maxPieces;
+    private final long[] offsets = new long[TablebaseIndex.SIGNATURES];
+
+    /**
+     * Read a tablebase from a buffer holding a whole tablebase file.
+     *
+     * @param data the file's bytes
+     * @throws IOException if the buffer does not hold a tablebase
+     */
+    public Tablebase(ByteBuffer data) throws IOException {
+        this.data = data;
+        Arrays.fill(this.offsets, -1);
+        if (data.capacity() < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Not a version " + VERSION + " tablebase file.");
+        }
+        this.maxPieces = data.getInt(2 * Integer.BYTES);
+        int signatures = data.getInt(3 * Integer.BYTES);
+        for (int i = 0; i < signatures; i++) {
+            int entry = HEADER_BYTES + i * DIRECTORY_ENTRY_BYTES;
+            int signature = data.getInt(entry);
+            long offset = data.getLong(entry + Integer.BYTES);
+            long size = data.getLong(entry + Integer.BYTES + Long.BYTES);
+            if (size != TablebaseIndex.size(signature) || offset + size > data.capacity()) {
+                throw new IOException("Tablebase directory does not match its data.");
+            }
+            this.offsets[signature] = offset;
+        }
+    }
+
+    /**
+     * An empty tablebase, used when no file is available
+     */
+    private Tablebase() {
+        this.data = null;
+        this.maxPieces = 0;
+        Arrays.fill(this.offsets, -1);
+    }
+
+    /**
+     * Map a tablebase file into memory.
+     *
+     * @param file the tablebase file
+     * @return the tablebase
+     * @throws IOException if the file can not be read or is not a tablebase
+     */
+    public static Tablebase open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Tablebase(buffer);
+        }
+    }
+
+    /**
+     * @return The tablebase at {@link com.webcheckers.util.Attributes#TABLEBASE_FILE_PATH}, or an
+     * empty one if there is no such file.
+     */
+    public static synchronized Tablebase getShared() {
+        if (shared == null) {
+            File file = new File(TABLEBASE_FILE_PATH);
+            try {
+                shared = file.exists() ? open(file) : new Tablebase();
+                LOG.config(String.format("Tablebase loaded for up to %d pieces.", shared.maxPieces));
+            } catch (IOException e) {
+                LOG.warning("Could not load tablebase: " + e.getMessage());
+                shared = new Tablebase();
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * @return The most pieces a position may have to be in the tablebase.
+     */
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * Look up a position.
+     *
+     * @param own      squares of the side to move
+     * @param opponent squares of the other side
+     * @param kings    squares holding kings of either side
+     * @param red      true if red is to move
+     * @return the stored value for the side to move, or {@link #NOT_FOUND}
+     */
+    public int probe(int own, int opponent, int kings, boolean red) {
+        if (Integer.bitCount(own | opponent) > maxPieces || own == 0 || opponent == 0) {
+            return NOT_FOUND;
+        }
+        if (!red) {
+            // Turn the board around so that the side to move is red.
+            own = Integer.reverse(own);
+            opponent = Integer.reverse(opponent);
+            kings = Integer.reverse(kings);
+        }
+        long offset = this.offsets[TablebaseIndex.signature(own, opponent, kings)];
+        if (offset < 0) {
+            return NOT_FOUND;
+        }
+        byte value = this.data.get((int) (offset + TablebaseIndex.index(own, opponent, kings)));
+        return value == INVALID ? NOT_FOUND : value;
+    }
+
+    /**
+     * @param board the position
+     * @param color side to move
+     * @return the stored value for the side to move, or {@link #NOT_FOUND}
+     */
+    public int probe(Board board, Piece.Color color) {
+        return this.probe(board.getPieces(color), board.getOpponentPieces(color), board.getKings(),
+                color.equals(Piece.Color.RED));
+    }
+
+    /**
+     * @param value a found value
+     * @return True, if the side to move wins.
+     */
+    public static boolean isWin(int value) {
+        return value > 0;
+    }
+
+    /**
+     * @param value a found value
+     * @return True, if the side to move loses.
+     */
+    public static boolean isLoss(int value) {
+        return value < 0;
+    }
+
+    /**
+     * @param value a found value
+     * @return the number of plies until the game ends, or 0 for a draw
+     */
+    public static int distance(int value) {
+        return value < 0 ? -value - 1 : value;
+    }
+
+    /**
+     * @param plies plies until the side to move wins, at least 1
+     * @return the stored value
+     */
+    public static byte win(int plies) {
+        return (byte) Math.min(plies, Byte.MAX_VALUE);
+    }
+
+    /**
+     * @param plies plies until the side to move loses
+     * @return the stored value
+     */
+    public static byte loss(int plies) {
+        return (byte) -Math.min(plies + 1, Byte.MAX_VALUE);
+    }
+}
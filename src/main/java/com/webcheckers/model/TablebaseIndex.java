@@ -0,0 +1,176 @@
+package com.webcheckers.model;
+
+/**
+ * Numbers the positions of an endgame {@link Tablebase}. Positions are always seen from
+ * red's side with red to move; a position with white to move is turned around first,
+ * rotating the board half a turn and swapping the colors.
+ * <p>
+ * Positions are grouped by material: how many red singles, red kings, white singles
+ * and white kings are on the board. Within a group each kind of piece is numbered as a
+ * combination of the squares it may stand on, and the four numbers are combined into
+ * one index. Singles never stand on the row that would crown them, so those squares are
+ * left out. Indexes where two kinds of piece share a square are not real positions.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ * @see Tablebase
+ */
+public final class TablebaseIndex {
+
+    /**
+     * Squares a single may stand on: every square but its own crowning row
+     */
+    private static final int SINGLE_SQUARES = Board.SQUARES - Board.SQUARES_PER_ROW;
+
+    /**
+     * Largest number of pieces of one kind, and the bits each count takes in a signature
+     */
+    private static final int MAX_KIND = 12;
+    private static final int KIND_BITS = 4;
+    private static final int KIND_MASK = (1 << KIND_BITS) - 1;
+
+    /**
+     * Number of distinct signatures
+     */
+    public static final int SIGNATURES = 1 << (4 * KIND_BITS);
+
+    private static final long[][] CHOOSE = new long[Board.SQUARES + 1][MAX_KIND + 1];
+
+    static {
+        for (int n = 0; n <= Board.SQUARES; n++) {
+            CHOOSE[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, MAX_KIND); k++) {
+                CHOOSE[n][k] = CHOOSE[n - 1][k - 1] + (k <= n - 1 ? CHOOSE[n - 1][k] : 0);
+            }
+        }
+    }
+
+    private TablebaseIndex() {
+    }
+
+    /**
+     * Pack a material count into a signature.
+     *
+     * @param redSingles   red singles
+     * @param redKings     red kings
+     * @param whiteSingles white singles
+     * @param whiteKings   white kings
+     * @return the signature
+     */
+    public static int signature(int redSingles, int redKings, int whiteSingles, int whiteKings) {
+        return (redSingles << (3 * KIND_BITS)) | (redKings << (2 * KIND_BITS))
+                | (whiteSingles << KIND_BITS) | whiteKings;
+    }
+
+    /**
+     * @param red   squares holding red pieces
+     * @param white squares holding white pieces
+     * @param kings squares holding kings of either side
+     * @return the signature of the position's material
+     */
+    public static int signature(int red, int white, int kings) {
+        return signature(Integer.bitCount(red & ~kings), Integer.bitCount(red & kings),
+                Integer.bitCount(white & ~kings), Integer.bitCount(white & kings));
+    }
+
+    /**
+     * @param signature a signature
+     * @param kind      0 for red singles, 1 red kings, 2 white singles, 3 white kings
+     * @return how many pieces of that kind the signature holds
+     */
+    public static int count(int signature, int kind) {
+        return (signature >>> ((3 - kind) * KIND_BITS)) & KIND_MASK;
+    }
+
+    /**
+     * @param signature a signature
+     * @return the total number of pieces
+     */
+    public static int pieces(int signature) {
+        return count(signature, 0) + count(signature, 1) + count(signature, 2) + count(signature, 3);
+    }
+
+    /**
+     * @param signature a signature
+     * @return the number of indexes in the signature's group
+     */
+    public static long size(int signature) {
+        return CHOOSE[SINGLE_SQUARES][count(signature, 0)] * CHOOSE[Board.SQUARES][count(signature, 1)]
+                * CHOOSE[SINGLE_SQUARES][count(signature, 2)] * CHOOSE[Board.SQUARES][count(signature, 3)];
+    }
+
+    /**
+     * Number a position within its signature's group.
+     *
+     * @param red   squares holding red pieces; red is to move
+     * @param white squares holding white pieces
+     * @param kings squares holding kings of either side
+     * @return the index
+     */
+    public static long index(int red, int white, int kings) {
+        int signature = signature(red, white, kings);
+        // Red singles can not stand on row 0 and white singles can not stand on row 7.
+        long index = rank((red & ~kings) >>> Board.SQUARES_PER_ROW);
+        index = index * CHOOSE[Board.SQUARES][count(signature, 1)] + rank(red & kings);
+        index = index * CHOOSE[SINGLE_SQUARES][count(signature, 2)] + rank(white & ~kings);
+        return index * CHOOSE[Board.SQUARES][count(signature, 3)] + rank(white & kings);
+    }
+
+    /**
+     * Rebuild the position at an index.
+     *
+     * @param signature the group the index belongs to
+     * @param index     the index
+     * @return red, white and king masks, or null if the index is not a real position
+     */
+    public static int[] position(int signature, long index) {
+        long whiteKingCount = CHOOSE[Board.SQUARES][count(signature, 3)];
+        long whiteSingleCount = CHOOSE[SINGLE_SQUARES][count(signature, 2)];
+        long redKingCount = CHOOSE[Board.SQUARES][count(signature, 1)];
+        int whiteKings = unrank(index % whiteKingCount, count(signature, 3));
+        index /= whiteKingCount;
+        int whiteSingles = unrank(index % whiteSingleCount, count(signature, 2));
+        index /= whiteSingleCount;
+        int redKings = unrank(index % redKingCount, count(signature, 1));
+        index /= redKingCount;
+        int redSingles = unrank(index, count(signature, 0)) << Board.SQUARES_PER_ROW;
+        int red = redSingles | redKings;
+        int white = whiteSingles | whiteKings;
+        if (Integer.bitCount(red | white) != pieces(signature)) {
+            return null;
+        }
+        return new int[]{red, white, redKings | whiteKings};
+    }
+
+    /**
+     * @param mask squares of one kind of piece
+     * @return the rank of the squares as a combination
+     */
+    private static long rank(int mask) {
+        long rank = 0;
+        int i = 1;
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            rank += CHOOSE[Integer.numberOfTrailingZeros(bits)][i++];
+        }
+        return rank;
+    }
+
+    /**
+     * @param rank  rank of a combination
+     * @param count number of squares in it
+     * @return the squares
+     */
+    private static int unrank(long rank, int count) {
+        int mask = 0;
+        int square = Board.SQUARES - 1;
+        for (int i = count; i > 0; i--) {
+            while (CHOOSE[square][i] > rank) {
+                square--;
+            }
+            mask |= 1 << square;
+            rank -= CHOOSE[square][i];
+            square--;
+        }
+        return mask;
+    }
+}
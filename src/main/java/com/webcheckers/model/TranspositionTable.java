@@ -0,0 +1,227 @@
+package com.webcheckers.model;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.webcheckers.util.Attributes.TRANSPOSITION_TABLE_MB;
+
+/**
+ * A fixed-size table of search results keyed by {@link Zobrist} hash, shared by every
+ * {@link SearchEngine} in the server.
+ * <p>
+ * Each entry is two longs: the packed result and the hash XORed with that result.
+ * Threads read and write entries without locking; an entry torn by two threads writing
+ * at once no longer XORs back to its hash, so it is simply treated as a miss.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ * @see SearchEngine
+ */
+public class TranspositionTable {
+
+    /**
+     * Bounds: the stored score is exact, at least the real score, or at most the real score
+     */
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    /**
+     * Stored in place of a best move when there is none
+     */
+    public static final int NO_MOVE = 0xFF;
+
+    private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int MOVE_SHIFT = 42;
+    private static final int GENERATION_SHIFT = 50;
+    private static final int BYTE_MASK = 0xFF;
+
+    private static TranspositionTable shared;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    /**
+     * Create a table that fits within a memory budget. The number of entries is rounded
+     * down to a power of two.
+     *
+     * @param megabytes memory budget, in megabytes
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("Transposition table needs at least one megabyte.");
+        }
+        long size = Long.highestOneBit((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        size = Math.min(size, 1 << 30);
+        this.keys = new long[(int) size];
+        this.entries = new long[(int) size];
+        this.mask = (int) size - 1;
+    }
+
+    /**
+     * @return The table shared by every search, sized by {@link com.webcheckers.util.Attributes#TRANSPOSITION_TABLE_MB}.
+     */
+    public static synchronized TranspositionTable getShared() {
+        if (shared == null) {
+            shared = new TranspositionTable(TRANSPOSITION_TABLE_MB);
+        }
+        return shared;
+    }
+
+    /**
+     * Start a new search. Entries from earlier searches are replaced first.
+     */
+    public void newSearch() {
+        this.generation.incrementAndGet();
+    }
+
+    /**
+     * Empty the table and reset its counters.
+     */
+    public void clear() {
+        Arrays.fill(this.keys, 0L);
+        Arrays.fill(this.entries, 0L);
+        this.probes.reset();
+        this.hits.reset();
+        this.collisions.reset();
+        this.stores.reset();
+    }
+
+    /**
+     * Look up a position.
+     *
+     * @param hash {@link Zobrist} hash of the position, including the side to move
+     * @return the packed entry, or 0 if the position is not in the table
+     */
+    public long probe(long hash) {
+        int index = (int) hash & mask;
+        long entry = entries[index];
+        long key = keys[index];
+        probes.increment();
+        if (entry != 0 && (key ^ entry) == hash) {
+            hits.increment();
+            return entry;
+        }
+        if (entry != 0) {
+            collisions.increment();
+        }
+        return 0;
+    }
+
+    /**
+     * Store a search result. A result replaces the one already in its slot unless that
+     * one is from the current search and was searched deeper.
+     *
+     * @param hash  {@link Zobrist} hash of the position, including the side to move
+     * @param score score of the position
+     * @param depth depth it was searched to
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     * @param move  index of the best turn in the position's {@link MoveList}, or {@link #NO_MOVE}
+     */
+    public void store(long hash, int score, int depth, int bound, int move) {
+        int index = (int) hash & mask;
+        int current = this.generation.get() & BYTE_MASK;
+        long old = entries[index];
+        if (old != 0 && (keys[index] ^ old) != hash && getGeneration(old) == current && getDepth(old) > depth) {
+            return;
+        }
+        long entry = (score & 0xFFFFFFFFL)
+                | ((long) Math.min(depth, BYTE_MASK) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) (move & BYTE_MASK) << MOVE_SHIFT)
+                | ((long) current << GENERATION_SHIFT);
+        entries[index] = entry;
+        keys[index] = hash ^ entry;
+        stores.increment();
+    }
+
+    /**
+     * @param entry a packed entry
+     * @return the stored score
+     */
+    public static int getScore(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * @param entry a packed entry
+     * @return the depth the score was searched to
+     */
+    public static int getDepth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & BYTE_MASK;
+    }
+
+    /**
+     * @param entry a packed entry
+     * @return {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    public static int getBound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 0x3;
+    }
+
+    /**
+     * @param entry a packed entry
+     * @return index of the best turn, or {@link #NO_MOVE}
+     */
+    public static int getMove(long entry) {
+        return (int) (entry >>> MOVE_SHIFT) & BYTE_MASK;
+    }
+
+    private static int getGeneration(long entry) {
+        return (int) (entry >>> GENERATION_SHIFT) & BYTE_MASK;
+    }
+
+    /**
+     * @return the number of entries the table holds
+     */
+    public int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * @return the number of lookups
+     */
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    /**
+     * @return the number of lookups that found their position
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups whose slot held a different position
+     */
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    /**
+     * @return the number of results stored
+     */
+    public long getStores() {
+        return stores.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("%d entries, %d probes, %d hits, %d collisions, %d stores",
+                this.capacity(), this.getProbes(), this.getHits(), this.getCollisions(), this.getStores());
+    }
+}
@@ -0,0 +1,163 @@
+package com.webcheckers.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A <code>TurnBuilder</code> holds the moves a player has made this turn but not yet
+ * submitted, as the {@link Board} squares their piece has stood on, along with the
+ * pieces it has jumped on the way.
+ * <p>
+ * A <code>TurnBuilder</code> is not thread-safe. Each {@link Game} owns one and only
+ * touches it while holding the game's lock.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public final class TurnBuilder implements Serializable {
+
+    /**
+     * Room for the longest multi-jump without growing
+     */
+    private static final int INITIAL_SQUARES = 16;
+
+    /**
+     * <code>squares[0]</code> is where the turn started and <code>squares[steps]</code>
+     * is where the piece is now
+     */
+    private int[] squares = new int[INITIAL_SQUARES];
+    private int steps;
+
+    /**
+     * Mask of the squares whose pieces have been jumped this turn
+     */
+    private int removed;
+
+    /**
+     * Add a move. A move after the first must start where the last one landed.
+     *
+     * @param from index of the square moved from
+     * @param to   index of the square moved to
+     */
+    public void add(int from, int to) {
+        if (this.steps == 0) {
+            this.squares[0] = from;
+        }
+        if (this.steps + 1 == this.squares.length) {
+            this.squares = Arrays.copyOf(this.squares, this.squares.length * 2);
+        }
+        this.squares[++this.steps] = to;
+        int jumped = Board.jumped(from, to);
+        if (jumped >= 0) {
+            this.removed |= 1 << jumped;
+        }
+    }
+
+    /**
+     * Take back the most recent move.
+     *
+     * @return True, if there was a move to take back.
+     */
+    public boolean undo() {
+        if (this.steps == 0) {
+            return false;
+        }
+        int jumped = Board.jumped(this.squares[this.steps - 1], this.squares[this.steps]);
+        if (jumped >= 0) {
+            this.removed &= ~(1 << jumped);
+        }
+        this.steps--;
+        return true;
+    }
+
+    /**
+     * Play the moves on a board, jumping pieces and crowning as they go, and start a
+     * new turn.
+     *
+     * @param board the board to move on
+     * @return True, if there were moves to make
+     */
+    public boolean submit(Board board) {
+        if (this.steps == 0) {
+            return false;
+        }
+        for (int i = 0; i < this.steps; i++) {
+            int from = this.squares[i];
+            int to = this.squares[i + 1];
+            int jumped = Board.jumped(from, to);
+            if (jumped >= 0) {
+                board.removePiece(jumped);
+            }
+            // Moving onto the far row crowns the piece.
+            board.move(from, to);
+        }
+        this.clear();
+        return true;
+    }
+
+    /**
+     * Drop every move made this turn.
+     */
+    public void clear() {
+        this.steps = 0;
+        this.removed = 0;
+    }
+
+    /**
+     * Forget which pieces have been jumped, keeping the moves.
+     */
+    public void clearRemoved() {
+        this.removed = 0;
+    }
+
+    /**
+     * @return the number of moves made this turn
+     */
+    public int size() {
+        return this.steps;
+    }
+
+    /**
+     * @param index how many moves into the turn, 0 for the square the turn started on
+     * @return the square the piece stood on after that many moves
+     */
+    public int getSquare(int index) {
+        return this.squares[index];
+    }
+
+    /**
+     * @return the square the turn started on, or -1 if no moves have been made
+     */
+    public int getStart() {
+        return this.steps == 0 ? -1 : this.squares[0];
+    }
+
+    /**
+     * @return every square the piece has stood on this turn, starting where it started,
+     * or an empty array if no moves have been made
+     */
+    public int[] getPath() {
+        return this.steps == 0 ? new int[0] : Arrays.copyOf(this.squares, this.steps + 1);
+    }
+
+    /**
+     * @param square index of a square
+     * @return True, if the piece on the square has been jumped this turn
+     */
+    public boolean isRemoved(int square) {
+        return square >= 0 && (this.removed & (1 << square)) != 0;
+    }
+
+    /**
+     * @return the moves made this turn, oldest first
+     */
+    public List<Move> getMoves() {
+        List<Move> moves = new ArrayList<>(this.steps);
+        for (int i = 0; i < this.steps; i++) {
+            moves.add(new Move(Position.of(this.squares[i]), Position.of(this.squares[i + 1])));
+        }
+        return moves;
+    }
+}
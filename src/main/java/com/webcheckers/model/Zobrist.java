@@ -0,0 +1,75 @@
+package com.webcheckers.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys for hashing checkerboard positions. A position's hash is the XOR of one
+ * random key per occupied square, chosen by the piece's color and type, plus one more
+ * key when white is to move. Moving, capturing or crowning a piece only XORs a few keys
+ * in or out, so a hash is kept up to date in constant time as the board changes.
+ * <p>
+ * The keys come from a fixed seed, so the same position hashes the same way in every run.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ * @see Board#getHash()
+ * @see TranspositionTable
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x5EED_C0FF_EE00_0001L;
+
+    /**
+     * Key XORed in when white is the side to move
+     */
+    public static final long WHITE_TO_MOVE;
+
+    /**
+     * One key per square for each kind of piece: red single, red king, white single, white king
+     */
+    private static final long[][] KEYS = new long[4][Board.SQUARES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] keys : KEYS) {
+            for (int square = 0; square < Board.SQUARES; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        WHITE_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @param red    true for a red piece
+     * @param king   true for a king
+     * @param square index of the square
+     * @return the key for that piece standing on that square
+     */
+    public static long piece(boolean red, boolean king, int square) {
+        return KEYS[(red ? 0 : 2) + (king ? 1 : 0)][square];
+    }
+
+    /**
+     * Hash a position from scratch.
+     *
+     * @param red   squares holding red pieces
+     * @param white squares holding white pieces
+     * @param kings squares holding kings of either side
+     * @return the hash of the pieces, without a side to move
+     */
+    public static long hash(int red, int white, int kings) {
+        long hash = 0;
+        for (int pieces = red; pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            hash ^= piece(true, (kings & (1 << square)) != 0, square);
+        }
+        for (int pieces = white; pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            hash ^= piece(false, (kings & (1 << square)) != 0, square);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,26 @@
+package com.webcheckers.tools;
+
+/**
+ * Positions shared by the command-line tools, as red, white and king masks with red to
+ * move. After the starting position, they are taken every six plies from a game the
+ * engine played against itself, so they run from the opening into a kings endgame.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+final class BenchmarkPositions {
+
+    static final int[][] POSITIONS = {
+            {0xFFF00000, 0x00000FFF, 0x00000000},
+            {0xFDC30000, 0x00002CFF, 0x00000000},
+            {0xFC460000, 0x00008A9F, 0x00000000},
+            {0xF4844000, 0x0048089F, 0x00000000},
+            {0xA1864000, 0x0000099E, 0x00000000},
+            {0xA10C0200, 0x00002C0E, 0x00000000},
+            {0x280C0200, 0x0002088A, 0x00000000},
+            {0x200C8200, 0x4000088A, 0x40000000},
+            {0x200C0004, 0x04000C08, 0x04000004},
+    };
+
+    private BenchmarkPositions() {
+    }
+}
@@ -0,0 +1,44 @@
+package com.webcheckers.tools;
+
+import com.webcheckers.appl.GameArchive;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import static com.webcheckers.util.Attributes.GAME_ARCHIVE_FILE_PATH;
+
+/**
+ * Exports every finished game in a {@link GameArchive} to one Portable Draughts Notation
+ * file. Games are read and written one at a time, so the export needs no more memory for
+ * a large archive than for a small one. The server can keep adding to the archive while
+ * it runs.
+ * <p>
+ * Usage: <code>PdnExport [output] [archive]</code>. Writes <code>games.pdn</code> from
+ * the server's archive by default.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public final class PdnExport {
+
+    private static final String DEFAULT_OUTPUT = "games.pdn";
+
+    private PdnExport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File output = new File(args.length > 0 ? args[0] : DEFAULT_OUTPUT);
+        File archive = new File(args.length > 1 ? args[1] : GAME_ARCHIVE_FILE_PATH);
+        long start = System.nanoTime();
+        int count;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(output), StandardCharsets.UTF_8))) {
+            count = GameArchive.export(archive, out);
+        }
+        System.out.printf("Exported %d games to %s in %d ms%n", count, output, (System.nanoTime() - start) / 1_000_000);
+    }
+}
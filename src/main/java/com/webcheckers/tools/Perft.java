@@ -0,0 +1,158 @@
+package com.webcheckers.tools;
+
+import com.webcheckers.model.Board;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.MoveGenerator;
+import com.webcheckers.model.MoveList;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.TurnBuilder;
+
+/**
+ * Counts the positions reached after every sequence of legal turns to a given depth
+ * (perft) and checks the counts against known values. A change to the move rules that
+ * changes any count, such as no longer forcing a multi-jump to be finished, shows up as a
+ * mismatch. It also reports nodes per second as a measure of move generation speed.
+ * <p>
+ * With <code>--board</code>, every turn near the root is also played through
+ * {@link TurnBuilder#submit(Board)}, the way the game plays a submitted turn, and the
+ * resulting board must match the one the move generator predicted.
+ * </p>
+ * <p>
+ * Usage: <code>Perft [depth] [--board]</code>. Exits with status 1 on any mismatch.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public final class Perft {
+
+    private static final int DEFAULT_DEPTH = 9;
+    private static final int MAX_DEPTH = 64;
+
+    /**
+     * Plies from the root within which turns are checked against {@link TurnBuilder}
+     */
+    private static final int BOARD_CHECK_PLIES = 3;
+
+    /**
+     * Counts for each of {@link BenchmarkPositions#POSITIONS}, from depth 1. The starting
+     * position's counts are the published ones for English draughts; the others were
+     * recorded from this move generator once it matched them.
+     */
+    private static final long[][] EXPECTED = {
+            {7L, 49L, 302L, 1469L, 7361L, 36768L, 179740L, 845931L, 3963680L, 18391564L, 85242128L},
+            {2L, 4L, 10L, 60L, 419L, 2784L, 18426L, 114995L, 695318L},
+            {9L, 64L, 420L, 2603L, 15870L, 93467L, 524214L, 2887978L, 15030767L},
+            {1L, 1L, 2L, 14L, 99L, 510L, 2793L, 13577L, 69444L},
+            {10L, 52L, 313L, 1433L, 7578L, 35873L, 183473L, 841853L, 4133773L},
+            {10L, 55L, 328L, 1502L, 7133L, 29710L, 130863L, 545943L, 2341447L},
+            {8L, 32L, 119L, 382L, 1390L, 4428L, 15479L, 52201L, 193022L},
+            {6L, 10L, 35L, 85L, 317L, 1079L, 4169L, 16717L, 66127L},
+            {7L, 34L, 105L, 365L, 1340L, 4955L, 20572L, 83722L, 379421L},
+    };
+
+    private final MoveList[] lists = new MoveList[MAX_DEPTH];
+    private final boolean checkBoard;
+    private int boardMismatches;
+
+    private Perft(boolean checkBoard) {
+        this.checkBoard = checkBoard;
+        for (int i = 0; i < MAX_DEPTH; i++) {
+            this.lists[i] = new MoveList();
+        }
+    }
+
+    public static void main(String[] args) {
+        int depth = DEFAULT_DEPTH;
+        boolean checkBoard = false;
+        for (String arg : args) {
+            if ("--board".equals(arg)) {
+                checkBoard = true;
+            } else {
+                depth = Math.min(Integer.parseInt(arg), MAX_DEPTH);
+            }
+        }
+
+        Perft perft = new Perft(checkBoard);
+        boolean passed = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+        System.out.printf("%8s %6s %14s %10s %12s  %s%n", "position", "depth", "nodes", "time (ms)", "nps", "result");
+        for (int i = 0; i < BenchmarkPositions.POSITIONS.length; i++) {
+            int[] position = BenchmarkPositions.POSITIONS[i];
+            for (int d = 1; d <= depth; d++) {
+                long start = System.nanoTime();
+                long nodes = perft.count(position[0], position[1], position[2], true, d, 0);
+                long elapsed = System.nanoTime() - start;
+                totalNodes += nodes;
+                totalNanos += elapsed;
+
+                String result = "-";
+                if (d <= EXPECTED[i].length) {
+                    boolean match = EXPECTED[i][d - 1] == nodes;
+                    passed &= match;
+                    result = match ? "ok" : "MISMATCH, expected " + EXPECTED[i][d - 1];
+                }
+                System.out.printf("%8d %6d %14d %10d %12d  %s%n", i, d, nodes, elapsed / 1_000_000,
+                        nodes * 1_000_000_000L / Math.max(1, elapsed), result);
+            }
+        }
+        System.out.printf("Total: %d nodes in %d ms (%d nps)%n", totalNodes, totalNanos / 1_000_000,
+                totalNodes * 1_000_000_000L / Math.max(1, totalNanos));
+        if (checkBoard) {
+            System.out.printf("TurnBuilder mismatches: %d%n", perft.boardMismatches);
+            passed &= perft.boardMismatches == 0;
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Count the positions at a depth.
+     *
+     * @param own      squares of the side to move
+     * @param opponent squares of the other side
+     * @param kings    squares holding kings of either side
+     * @param red      true if red is to move
+     * @param depth    plies left to play
+     * @param ply      plies played from the root
+     * @return the number of positions
+     */
+    private long count(int own, int opponent, int kings, boolean red, int depth, int ply) {
+        MoveList list = this.lists[ply];
+        MoveGenerator.generate(own, opponent, kings, red, list);
+        if (this.checkBoard && ply < BOARD_CHECK_PLIES) {
+            this.checkBoard(own, opponent, kings, red, list);
+        }
+        if (depth == 1) {
+            return list.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < list.size(); i++) {
+            nodes += this.count(list.opponentAfter(i, opponent), list.ownAfter(i, own),
+                    list.kingsAfter(i, kings, red), !red, depth - 1, ply + 1);
+        }
+        return nodes;
+    }
+
+    /**
+     * Play every turn in a list through a {@link TurnBuilder} and count those that leave a
+     * different board than the move generator predicts.
+     */
+    private void checkBoard(int own, int opponent, int kings, boolean red, MoveList list) {
+        for (int i = 0; i < list.size(); i++) {
+            Board board = red ? new Board(own, opponent, kings) : new Board(opponent, own, kings);
+            TurnBuilder turn = new TurnBuilder();
+            for (Move move : list.getMoves(i)) {
+                turn.add(move.getStart().getSquare(), move.getEnd().getSquare());
+            }
+            turn.submit(board);
+            Piece.Color color = red ? Piece.Color.RED : Piece.Color.WHITE;
+            if (board.getPieces(color) != list.ownAfter(i, own)
+                    || board.getOpponentPieces(color) != list.opponentAfter(i, opponent)
+                    || board.getKings() != list.kingsAfter(i, kings, red)) {
+                this.boardMismatches++;
+            }
+        }
+    }
+}
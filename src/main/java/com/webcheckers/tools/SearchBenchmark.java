@@ -0,0 +1,74 @@
+package com.webcheckers.tools;
+
+import com.webcheckers.model.Board;
+import com.webcheckers.model.ParallelSearch;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.SearchResult;
+import com.webcheckers.model.TranspositionTable;
+
+import static com.webcheckers.util.Attributes.MAX_SEARCH_THREADS;
+import static com.webcheckers.util.Attributes.TRANSPOSITION_TABLE_MB;
+
+/**
+ * Measures how much faster a {@link ParallelSearch} reaches a fixed depth as threads are
+ * added. Every position in the set is searched from an empty table with 1, 2, 4, ...
+ * threads, and the total time is compared with the single-threaded time.
+ * <p>
+ * Usage: <code>SearchBenchmark [depth] [max threads]</code>
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public final class SearchBenchmark {
+
+    private static final int DEFAULT_DEPTH = 13;
+
+    private SearchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : MAX_SEARCH_THREADS;
+        TranspositionTable table = new TranspositionTable(TRANSPOSITION_TABLE_MB);
+
+        // Warm up the JIT so the single-threaded baseline is not penalized.
+        run(new ParallelSearch(table, 1), table, depth, 1);
+
+        System.out.printf("%d positions to depth %d, %d entry table%n", BenchmarkPositions.POSITIONS.length, depth,
+                table.capacity());
+        System.out.printf("%8s %10s %14s %12s %8s%n", "threads", "time (ms)", "nodes", "nps", "speedup");
+        long baseline = 0;
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            long[] totals = run(new ParallelSearch(table, threads), table, depth, threads);
+            long elapsed = totals[0];
+            long nodes = totals[1];
+            if (threads == 1) {
+                baseline = elapsed;
+            }
+            System.out.printf("%8d %10d %14d %12d %8.2f%n", threads, elapsed / 1_000_000, nodes,
+                    nodes * 1_000_000_000L / Math.max(1, elapsed), (double) baseline / elapsed);
+            if (threads >= maxThreads) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Search every position in the set from an empty table.
+     *
+     * @return total nanoseconds and total nodes
+     */
+    private static long[] run(ParallelSearch search, TranspositionTable table, int depth, int threads) {
+        long elapsed = 0;
+        long nodes = 0;
+        for (int[] position : BenchmarkPositions.POSITIONS) {
+            table.clear();
+            Board board = new Board(position[0], position[1], position[2]);
+            long start = System.nanoTime();
+            SearchResult result = search.search(board, Piece.Color.RED, Long.MAX_VALUE / 2_000_000L, depth, threads);
+            elapsed += System.nanoTime() - start;
+            nodes += result == null ? 0 : result.getNodes();
+        }
+        return new long[]{elapsed, nodes};
+    }
+}
@@ -0,0 +1,196 @@
+package com.webcheckers.tools;
+
+import com.webcheckers.model.MoveGenerator;
+import com.webcheckers.model.MoveList;
+import com.webcheckers.model.Tablebase;
+import com.webcheckers.model.TablebaseIndex;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.webcheckers.util.Attributes.TABLEBASE_FILE_PATH;
+import static com.webcheckers.util.Attributes.TABLEBASE_PIECES;
+
+/**
+ * Builds an endgame {@link Tablebase} file by retrograde analysis. Positions are solved
+ * a piece count at a time, fewest pieces first, so any capture leads to a position that
+ * is already solved. Within a piece count, every position whose result follows from the
+ * positions solved so far is solved in one pass: a position is won if some turn leads to
+ * a lost position, and lost if every turn leads to a won one. Passes repeat until one
+ * solves nothing, and whatever is left is a draw. Each pass only uses results from
+ * earlier passes, so the stored distances are the shortest possible.
+ * <p>
+ * Usage: <code>TablebaseGenerator [max pieces] [output file]</code>
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public final class TablebaseGenerator {
+
+    private final Map<Integer, byte[]> tables = new LinkedHashMap<>();
+    private final MoveList list = new MoveList();
+
+    private TablebaseGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int maxPieces = args.length > 0 ? Integer.parseInt(args[0]) : TABLEBASE_PIECES;
+        String path = args.length > 1 ? args[1] : TABLEBASE_FILE_PATH;
+
+        TablebaseGenerator generator = new TablebaseGenerator();
+        for (int pieces = 2; pieces <= maxPieces; pieces++) {
+            long start = System.nanoTime();
+            int passes = generator.solve(pieces);
+            System.out.printf("%d pieces: %d passes in %d ms%n", pieces, passes,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        generator.write(path, maxPieces);
+        System.out.printf("Wrote %s%n", path);
+    }
+
+    /**
+     * @param pieces total number of pieces
+     * @return every signature with that many pieces and at least one piece per side
+     */
+    private static List<Integer> signatures(int pieces) {
+        List<Integer> signatures = new ArrayList<>();
+        for (int redSingles = 0; redSingles <= pieces; redSingles++) {
+            for (int redKings = 0; redSingles + redKings <= pieces; redKings++) {
+                for (int whiteSingles = 0; redSingles + redKings + whiteSingles <= pieces; whiteSingles++) {
+                    int whiteKings = pieces - redSingles - redKings - whiteSingles;
+                    if (redSingles + redKings > 0 && whiteSingles + whiteKings > 0) {
+                        signatures.add(TablebaseIndex.signature(redSingles, redKings, whiteSingles, whiteKings));
+                    }
+                }
+            }
+        }
+        return signatures;
+    }
+
+    /**
+     * Solve every position with a given number of pieces.
+     *
+     * @param pieces total number of pieces
+     * @return the number of passes it took
+     */
+    private int solve(int pieces) {
+        List<Integer> signatures = signatures(pieces);
+        for (int signature : signatures) {
+            byte[] table = new byte[(int) TablebaseIndex.size(signature)];
+            for (int index = 0; index < table.length; index++) {
+                if (TablebaseIndex.position(signature, index) == null) {
+                    table[index] = Tablebase.INVALID;
+                }
+            }
+            this.tables.put(signature, table);
+        }
+
+        int passes = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            passes++;
+            // Work out every new result from the previous pass before storing any of them.
+            Map<Integer, byte[]> next = new LinkedHashMap<>();
+            for (int signature : signatures) {
+                byte[] table = this.tables.get(signature);
+                byte[] solved = table.clone();
+                for (int index = 0; index < table.length; index++) {
+                    if (table[index] == Tablebase.DRAW) {
+                        solved[index] = this.solve(TablebaseIndex.position(signature, index));
+                        changed |= solved[index] != Tablebase.DRAW;
+                    }
+                }
+                next.put(signature, solved);
+            }
+            this.tables.putAll(next);
+        }
+        return passes;
+    }
+
+    /**
+     * Try to solve a position from the results known so far.
+     *
+     * @param position red, white and king masks, red to move
+     * @return the result, or {@link Tablebase#DRAW} if it is not known yet
+     */
+    private byte solve(int[] position) {
+        int red = position[0];
+        int white = position[1];
+        int kings = position[2];
+        MoveGenerator.generate(red, white, kings, true, this.list);
+        if (this.list.size() == 0) {
+            return Tablebase.loss(0);
+        }
+        int fastestWin = Integer.MAX_VALUE;
+        int slowestLoss = 0;
+        boolean allLose = true;
+        for (int i = 0; i < this.list.size(); i++) {
+            int value = this.lookup(this.list.opponentAfter(i, white), this.list.ownAfter(i, red),
+                    this.list.kingsAfter(i, kings, true));
+            if (Tablebase.isLoss(value)) {
+                fastestWin = Math.min(fastestWin, Tablebase.distance(value) + 1);
+            } else if (Tablebase.isWin(value)) {
+                slowestLoss = Math.max(slowestLoss, Tablebase.distance(value) + 1);
+            } else {
+                allLose = false;
+            }
+        }
+        if (fastestWin != Integer.MAX_VALUE) {
+            return Tablebase.win(fastestWin);
+        }
+        return allLose ? Tablebase.loss(slowestLoss) : Tablebase.DRAW;
+    }
+
+    /**
+     * Look up a position reached after red's turn, with white to move.
+     *
+     * @param own      squares of white, the side to move
+     * @param opponent squares of red
+     * @param kings    squares holding kings
+     * @return the value for white
+     */
+    private int lookup(int own, int opponent, int kings) {
+        if (own == 0) {
+            return Tablebase.loss(0);
+        }
+        // Turn the board around so that the side to move is red.
+        int red = Integer.reverse(own);
+        int white = Integer.reverse(opponent);
+        int reversedKings = Integer.reverse(kings);
+        byte[] table = this.tables.get(TablebaseIndex.signature(red, white, reversedKings));
+        return table[(int) TablebaseIndex.index(red, white, reversedKings)];
+    }
+
+    /**
+     * Write every table to a file.
+     *
+     * @param path      file to write
+     * @param maxPieces most pieces in any table
+     * @throws IOException if the file can not be written
+     */
+    private void write(String path, int maxPieces) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(Tablebase.MAGIC);
+            out.writeInt(Tablebase.VERSION);
+            out.writeInt(maxPieces);
+            out.writeInt(this.tables.size());
+            long offset = Tablebase.HEADER_BYTES + (long) this.tables.size() * Tablebase.DIRECTORY_ENTRY_BYTES;
+            for (Map.Entry<Integer, byte[]> entry : this.tables.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeLong(offset);
+                out.writeLong(entry.getValue().length);
+                offset += entry.getValue().length;
+            }
+            for (byte[] table : this.tables.values()) {
+                out.write(table);
+            }
+        }
+    }
+}
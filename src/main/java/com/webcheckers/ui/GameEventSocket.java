@@ -0,0 +1,174 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.model.Game;
+import com.webcheckers.model.Player;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
+import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+
+import java.net.HttpCookie;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import static com.webcheckers.util.Attributes.*;
+
+/**
+ * WebSocket endpoint pushing game events to the players of a {@Link Game} the moment
+ * they are stored: the turn changing, the opponent resigning and the game ending. Each
+ * event is a small JSON object, <code>{"type": ..., "gameID": ...}</code>, telling the page
+ * to check its turn now rather than at its next poll.
+ * <p>
+ * A socket belongs to the {@Link Player} signed in on the HTTP session it was opened
+ * from. Jetty keeps WebSocket sessions apart from Spark's, so the game page tells this
+ * endpoint whose session it is each time it loads. A player can have several pages open,
+ * and each gets every event.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+@WebSocket
+public class GameEventSocket implements GameCenter.Listener {
+    private static final Logger LOG = getLogger(GameEventSocket.class);
+
+    /**
+     * Kinds of events pushed
+     */
+    public enum Type {
+        TURN_CHANGED, OPPONENT_RESIGNED, GAME_ENDED
+    }
+
+    private final Gson gson;
+
+    /**
+     * Open sockets, by {@Link Player} name
+     */
+    private final Map<String, Set<Session>> sockets = new ConcurrentHashMap<>();
+
+    /**
+     * The {@Link Player} name of each open socket
+     */
+    private final Map<Session, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * The {@Link Player} name signed in on each HTTP session ID, and the other way round, so
+     * a name signing in again on a new session replaces its old one
+     */
+    private final Map<String, String> sessionPlayers = new ConcurrentHashMap<>();
+    private final Map<String, String> playerSessions = new ConcurrentHashMap<>();
+
+    public GameEventSocket(final Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * Let sockets opened from an HTTP session receive a {@Link Player}'s events.
+     *
+     * @param sessionID ID of the HTTP session
+     * @param player    the player signed in on it
+     */
+    public void signedIn(String sessionID, Player player) {
+        String previous = this.playerSessions.put(player.getName(), sessionID);
+        if (previous != null && !previous.equals(sessionID)) {
+            this.sessionPlayers.remove(previous, player.getName());
+        }
+        this.sessionPlayers.put(sessionID, player.getName());
+    }
+
+    /**
+     * Stop sockets opened from now on receiving a {@Link Player}'s events.
+     *
+     * @param player the player signing out
+     */
+    public void signedOut(Player player) {
+        String sessionID = this.playerSessions.remove(player.getName());
+        if (sessionID != null) {
+            this.sessionPlayers.remove(sessionID, player.getName());
+        }
+    }
+
+    @OnWebSocketConnect
+    public void connected(Session socket) {
+        String player = null;
+        List<HttpCookie> cookies = socket.getUpgradeRequest().getCookies();
+        for (HttpCookie cookie : cookies == null ? Collections.<HttpCookie>emptyList() : cookies) {
+            if (SESSION_COOKIE.equals(cookie.getName())) {
+                // Jetty adds the node to the ID in the cookie: "<id>.<node>"
+                String value = cookie.getValue();
+                int node = value.lastIndexOf('.');
+                player = this.sessionPlayers.get(node < 0 ? value : value.substring(0, node));
+                break;
+            }
+        }
+        if (player == null) {
+            socket.close(StatusCode.POLICY_VIOLATION, "Not signed in");
+            return;
+        }
+        this.names.put(socket, player);
+        this.sockets.compute(player, (name, open) -> {
+            Set<Session> set = open == null ? ConcurrentHashMap.newKeySet() : open;
+            set.add(socket);
+            return set;
+        });
+    }
+
+    @OnWebSocketClose
+    public void closed(Session socket, int statusCode, String reason) {
+        String player = this.names.remove(socket);
+        if (player != null) {
+            this.sockets.computeIfPresent(player, (name, open) -> {
+                open.remove(socket);
+                return open.isEmpty() ? null : open;
+            });
+        }
+    }
+
+    @Override
+    public void turnChanged(int id, Game game) {
+        this.push(id, Type.TURN_CHANGED, game.getRedPlayer(), game.getWhitePlayer());
+    }
+
+    @Override
+    public void gameResigned(int id, Game game, Player player) {
+        this.push(id, Type.OPPONENT_RESIGNED, player == null ? null : game.getOppositePlayer(player));
+    }
+
+    @Override
+    public void gameEnded(int id, Game game) {
+        this.push(id, Type.GAME_ENDED, game.getRedPlayer(), game.getWhitePlayer());
+    }
+
+    /**
+     * Send an event to every open socket of some players, without waiting for it to go.
+     */
+    private void push(int id, Type type, Player... players) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", type);
+        event.put("gameID", id);
+        String json = this.gson.toJson(event);
+        for (Player player : players) {
+            Set<Session> open = player == null ? null : this.sockets.get(player.getName());
+            if (open == null) {
+                continue;
+            }
+            for (Session socket : open) {
+                if (socket.isOpen()) {
+                    try {
+                        socket.getRemote().sendStringByFuture(json);
+                    } catch (RuntimeException e) {
+                        // The page will find out at its next poll.
+                        LOG.fine(String.format("Cannot push %s to %s: %s", type, player.getName(), e.getMessage()));
+                    }
+                }
+            }
+        }
+    }
+}
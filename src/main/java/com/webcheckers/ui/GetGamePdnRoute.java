@@ -0,0 +1,58 @@
+package com.webcheckers.ui;
+
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.model.Game;
+import com.webcheckers.model.Pdn;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import static com.webcheckers.util.Attributes.*;
+
+/**
+ * GET route streaming a {@Link Game} in Portable Draughts Notation, whether it is still
+ * being played or has finished and been archived. The moves are written straight to the
+ * response from the game's move log, so the game is never built up as one string.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public class GetGamePdnRoute implements Route {
+
+    private final GameCenter gameCenter;
+
+    public GetGamePdnRoute(final GameCenter gameCenter) {
+        this.gameCenter = gameCenter;
+
+        initialize(GetGamePdnRoute.class);
+    }
+
+    @Override
+    public Object handle(Request request, Response response) throws Exception {
+        invoke(GetGamePdnRoute.class);
+
+        Game game;
+        try {
+            int id = Integer.parseInt(request.params(":id"));
+            game = this.gameCenter.getGame(id);
+            if (game == null) {
+                game = this.gameCenter.getFinishedGame(id);
+            }
+        } catch (NumberFormatException e) {
+            game = null;
+        }
+        if (game == null) {
+            response.status(HTTP_NOT_FOUND);
+            return NON_EXISTANT_GAME_MSG;
+        }
+        response.type(PDN_CONTENT_TYPE);
+        Writer out = new BufferedWriter(new OutputStreamWriter(response.raw().getOutputStream(), StandardCharsets.UTF_8));
+        Pdn.write(game, out);
+        out.flush();
+        return "";
+    }
+}
@@ -28,14 +28,17 @@ public class GetGameRoute implements Route {
     private final PlayerLobby playerLobby;
     private final GameCenter gameCenter;
     private final ClientLobby clientLobby;
+    private final GameEventSocket gameEventSocket;
 
-    public GetGameRoute(TemplateEngine templateEngine, PlayerLobby playerLobby, GameCenter gameCenter, ClientLobby clientLobby) {
+    public GetGameRoute(TemplateEngine templateEngine, PlayerLobby playerLobby, GameCenter gameCenter, ClientLobby clientLobby,
+                        GameEventSocket gameEventSocket) {
         Objects.requireNonNull(templateEngine, TEMPLATE_ENGINE_MSG);
 
         this.templateEngine = templateEngine;
         this.playerLobby = playerLobby;
         this.gameCenter = gameCenter;
         this.clientLobby = clientLobby;
+        this.gameEventSocket = gameEventSocket;
 
         initialize(GetGameRoute.class);
     }
@@ -73,32 +76,53 @@ public class GetGameRoute implements Route {
             return null;
         }
 
-        if (game == null) {
-            // Game has ended due to loss or resignation.
-            boolean resigned = gameCenter.checkout(httpSession.attribute(GAME_ID_ATTR));
+        boolean spectating = game == null
+                ? currentPlayer != null && this.playerLobby.isSpectator(currentPlayer.getName())
+                : !game.getRedPlayer().equals(currentPlayer) && !game.getWhitePlayer().equals(currentPlayer);
+        if (spectating && (game == null || game.isOver())) {
+            // The game a spectator was watching has ended; leave its outcome to its players.
+            this.endSpectating(httpSession, currentPlayer);
+            response.redirect(WebServer.HOME_URL);
+        } else if (game == null) {
+            // Game has ended due to resignation, or the other player saw it end first.
+            int gameID = httpSession.attribute(GAME_ID_ATTR);
+            boolean resigned = gameCenter.checkout(gameID);
             httpSession.removeAttribute(GAME_ID_ATTR);
-            httpSession.attribute(PLAYER_MESSAGE_ATTR, new Message(resigned ? PARTNER_RESIGNED_MSG : LOSE_MSG, Message.Type.info));
-            response.redirect(resigned ? WebServer.HOME_URL : WebServer.GAMEEND_URL);
+            if (resigned) {
+                httpSession.attribute(PLAYER_MESSAGE_ATTR, new Message(PARTNER_RESIGNED_MSG, Message.Type.info));
+                response.redirect(WebServer.HOME_URL);
+                return null;
+            }
+            Game finished = this.gameCenter.getFinishedGame(gameID);
+            if (finished == null) {
+                // Outcome no longer known
+                httpSession.attribute(PLAYER_MESSAGE_ATTR, new Message(LOSE_MSG, Message.Type.info));
+            } else {
+                this.showOutcome(httpSession, finished, currentPlayer);
+            }
+            response.redirect(WebServer.GAMEEND_URL);
         } else if (game.isOver()) {
             // Game has ended due to the game being won.
             int gameID = httpSession.attribute(GAME_ID_ATTR);
             this.playerLobby.gameFinished(gameID);
             this.gameCenter.removeGame(gameID, FALSE);
             httpSession.removeAttribute(GAME_ID_ATTR);
-            if ((game.getWinnerColor().equals(Piece.Color.RED) && currentPlayer.equals(game.getRedPlayer())) ||
-                    (game.getWinnerColor().equals(Piece.Color.WHITE) && currentPlayer.equals(game.getWhitePlayer()))) {
-                httpSession.attribute(PLAYER_MESSAGE_ATTR, WIN_MSG);
-                response.redirect(WebServer.GAMEEND_URL); // Go to gameEnd.ftl
-                return null;
-            }
-            response.redirect(WebServer.HOME_URL); // Bad Case
+            // The computer never loads the page, so tell the current player here.
+            this.showOutcome(httpSession, game, currentPlayer);
+            response.redirect(WebServer.GAMEEND_URL); // Go to gameEnd.ftl
         } else {
             // Make game map
-            Map<String, Object> vm = game.getGameAttributes(currentPlayer);
-            game.reload();
+            Map<String, Object> vm;
             if (httpSession.attribute(FLIPPED_ATTR) != null) {
                 // Is player is a spectator, flip the board if applicable
                 vm = game.getGameAttributes(currentPlayer, httpSession.attribute(FLIPPED_ATTR));
+            } else {
+                vm = game.getGameAttributes(currentPlayer);
+            }
+            game.reload();
+            if (currentPlayer != null) {
+                // Let the page's socket receive this player's game events
+                this.gameEventSocket.signedIn(httpSession.id(), currentPlayer);
             }
             vm.put(TITLE_ATTR, MAIN_TITLE);
             vm.put(CURRENT_PLAYER_ATTR, httpSession.attribute(CURRENT_PLAYER_ATTR));
@@ -108,4 +132,34 @@ public class GetGameRoute implements Route {
         }
         return null;
     }
+
+    /**
+     * Give one of a finished {@Link Game}'s players the message for how it ended for them.
+     *
+     * @param httpSession   the player's HTTP session
+     * @param game          the finished game
+     * @param currentPlayer the player
+     */
+    private void showOutcome(Session httpSession, Game game, Player currentPlayer) {
+        if (game.isDraw()) {
+            httpSession.attribute(PLAYER_MESSAGE_ATTR, new Message(DRAW_MSG, Message.Type.info));
+        } else if ((game.getWinnerColor().equals(Piece.Color.RED) && currentPlayer.equals(game.getRedPlayer())) ||
+                (game.getWinnerColor().equals(Piece.Color.WHITE) && currentPlayer.equals(game.getWhitePlayer()))) {
+            httpSession.attribute(PLAYER_MESSAGE_ATTR, WIN_MSG);
+        } else {
+            httpSession.attribute(PLAYER_MESSAGE_ATTR, new Message(LOSE_MSG, Message.Type.info));
+        }
+    }
+
+    /**
+     * Stop a {@Link Player} spectating the game in their session.
+     *
+     * @param httpSession   the HTTP session
+     * @param currentPlayer the spectator
+     */
+    private void endSpectating(Session httpSession, Player currentPlayer) {
+        httpSession.removeAttribute(FLIPPED_ATTR);
+        this.playerLobby.removeSpectator(currentPlayer);
+        httpSession.removeAttribute(GAME_ID_ATTR);
+    }
 }
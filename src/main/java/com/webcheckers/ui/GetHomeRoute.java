@@ -1,6 +1,7 @@
 package com.webcheckers.ui;
 
 import com.webcheckers.appl.ClientLobby;
+import com.webcheckers.appl.LobbySnapshot;
 import com.webcheckers.appl.PlayerLobby;
 import com.webcheckers.model.Player;
 import spark.*;
@@ -13,6 +14,11 @@ import static java.lang.Boolean.TRUE;
 
 /**
  * The UI Controller to GET the Home page.
+ * <p>
+ * The player list comes from the shared {@Link LobbySnapshot}. The page's ETag is made
+ * from the snapshot version and the viewer, so a browser refreshing an unchanged lobby
+ * gets a 304 and nothing is rendered.
+ * </p>
  *
  * @author <a href='mailto:bdbvse@rit.edu'>Bryan Basham</a>
  * @author <a href='mailto:np9379@rit.edu'>Nathan Page</a>
@@ -94,29 +100,25 @@ public class GetHomeRoute implements Route {
         } catch (NullPointerException ignored) {
         }
 
+        LobbySnapshot snapshot = this.playerLobby.getSnapshot();
+        boolean signedIn = httpSession.attribute(CURRENT_PLAYER_ATTR) != null; // Player is signed in if their player is not null
+        if (httpSession.attribute(PLAYER_MESSAGE_ATTR) == null) {
+            // Without a message to show, the page only changes with the lobby and the viewer.
+            String eTag = eTag(snapshot, signedIn ? currentPlayer : null);
+            response.header(CACHE_CONTROL_HEADER, "no-cache");
+            response.header(ETAG_HEADER, eTag);
+            if (eTag.equals(request.headers(IF_NONE_MATCH_HEADER))) {
+                response.status(HTTP_NOT_MODIFIED);
+                return "";
+            }
+        }
+
         Map<String, Object> vm = new HashMap<>();
         vm.put(TITLE_ATTR, WELCOME_TITLE); // Map home page
         vm.put(CURRENT_PLAYER_ATTR, currentPlayer);
-        vm.put(SIGNED_IN_ATTR, httpSession.attribute(CURRENT_PLAYER_ATTR) != null); // Player is signed in if their player is not null
-
-        Map<String, String> playerIDs = new HashMap<>();
-        for (String name : playerLobby.getUserNamesList()) {
-            // Give each player an identifier for home page css
-            if (this.playerLobby.isSpectator(name)) {
-                playerIDs.put(name, "IS_SPECTATOR");
-            } else if (this.playerLobby.getOpponentOf(name) != null) {
-                playerIDs.put(name, "IN_GAME");
-            } else {
-                playerIDs.put(name, "IS_OTHER");
-            }
-        }
-        List<Map.Entry<String, String>> convertedMap = new ArrayList(playerIDs.entrySet());
-        vm.put(PLAYER_LIST_ATTR, convertedMap);
-        StringBuilder str = new StringBuilder(EXPIRE_CHAR);
-        for (String name : clientLobby.getExpiredPlayers()) {
-            str.append(name + EXPIRE_CHAR);
-        }
-        vm.put(EXPIRE_TEXT_ATTR, str.toString());
+        vm.put(SIGNED_IN_ATTR, signedIn);
+        vm.put(PLAYER_LIST_ATTR, snapshot.getPlayerList());
+        vm.put(EXPIRE_TEXT_ATTR, snapshot.getExpireText());
 
         if (httpSession.attribute(PLAYER_MESSAGE_ATTR) != null) { // Player has a message, display it
             vm.put(PLAYER_MESSAGE_ATTR, httpSession.attribute(PLAYER_MESSAGE_ATTR));
@@ -126,4 +128,15 @@ public class GetHomeRoute implements Route {
         return templateEngine.render(new ModelAndView(vm, HOME_FTL));
     }
 
+    /**
+     * @param snapshot the lobby shown on the page
+     * @param viewer   the signed-in {@Link Player} viewing the page, or null
+     * @return weak ETag for the page
+     */
+    static String eTag(LobbySnapshot snapshot, Player viewer) {
+        // Names may hold spaces, which an ETag cannot, so the viewer goes in as a hash.
+        String viewerTag = viewer == null ? "-" : Integer.toHexString(viewer.getName().hashCode());
+        return "W/\"" + SESSION_ID + "-" + snapshot.getVersion() + "-" + viewerTag + "\"";
+    }
+
 }
\ No newline at end of file
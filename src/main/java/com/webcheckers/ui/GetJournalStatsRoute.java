@@ -0,0 +1,36 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.webcheckers.appl.Journal;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import static com.webcheckers.util.Attributes.*;
+
+/**
+ * GET route reporting how the {@Link Journal}'s writer is keeping up, as JSON: commits per
+ * second, batch sizes and queue depth.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public class GetJournalStatsRoute implements Route {
+
+    private final Gson gson;
+    private final Journal journal;
+
+    public GetJournalStatsRoute(final Gson gson, final Journal journal) {
+        this.gson = gson;
+        this.journal = journal;
+
+        initialize(GetJournalStatsRoute.class);
+    }
+
+    @Override
+    public Object handle(Request request, Response response) {
+        invoke(GetJournalStatsRoute.class);
+
+        response.type(JSON_CONTENT_TYPE);
+        return gson.toJson(this.journal.getStats());
+    }
+}
@@ -0,0 +1,86 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.model.Board;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.Replay;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.webcheckers.util.Attributes.*;
+
+/**
+ * GET route returning the board at one ply of a finished game, as JSON: the players, the
+ * result, the number of plies, whose turn it is, the red, white and king masks (bit
+ * <code>n</code> for {@Link Board} square <code>n</code>) and the squares of the turn that
+ * led to it.
+ * <p>
+ * A finished game never changes, so each response is tagged with the game, when it was
+ * started and the ply. Browsers check back before reusing a response, since a game ID can
+ * be given again if the server's storage is wiped, and a request already holding the
+ * response is answered with 304.
+ * </p>
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+public class GetReplayRoute implements Route {
+
+    private final Gson gson;
+    private final GameCenter gameCenter;
+
+    public GetReplayRoute(final Gson gson, final GameCenter gameCenter) {
+        this.gson = gson;
+        this.gameCenter = gameCenter;
+
+        initialize(GetReplayRoute.class);
+    }
+
+    @Override
+    public Object handle(Request request, Response response) {
+        invoke(GetReplayRoute.class);
+
+        int id;
+        int ply;
+        try {
+            id = Integer.parseInt(request.params(":id"));
+            ply = Integer.parseInt(request.params(":ply"));
+        } catch (NumberFormatException e) {
+            response.status(HTTP_NOT_FOUND);
+            return NON_EXISTANT_GAME_MSG;
+        }
+        Replay replay = this.gameCenter.getReplay(id);
+        if (replay == null || ply < 0 || ply > replay.getPlies()) {
+            response.status(HTTP_NOT_FOUND);
+            return NON_EXISTANT_GAME_MSG;
+        }
+
+        // The game's creation time tells apart games given the same ID by different servers.
+        String eTag = String.format("\"%d-%x-%d\"", id, replay.getCreated(), ply);
+        response.header(CACHE_CONTROL_HEADER, REVALIDATE_CACHE_CONTROL);
+        response.header(ETAG_HEADER, eTag);
+        if (eTag.equals(request.headers(IF_NONE_MATCH_HEADER))) {
+            response.status(HTTP_NOT_MODIFIED);
+            return "";
+        }
+
+        Board board = replay.getBoard(ply);
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("redPlayer", replay.getRedName());
+        frame.put("whitePlayer", replay.getWhiteName());
+        frame.put("result", replay.getResult());
+        frame.put("plies", replay.getPlies());
+        frame.put("ply", ply);
+        frame.put("activeColor", Replay.colorAt(ply));
+        frame.put("red", board.getPieces(Piece.Color.RED));
+        frame.put("white", board.getPieces(Piece.Color.WHITE));
+        frame.put("kings", board.getKings());
+        frame.put("lastTurn", replay.getTurnBefore(ply));
+        response.type(JSON_CONTENT_TYPE);
+        return this.gson.toJson(frame);
+    }
+}
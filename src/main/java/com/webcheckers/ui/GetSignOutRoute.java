@@ -14,7 +14,6 @@ import spark.Session;
 import java.util.logging.Logger;
 
 import static com.webcheckers.util.Attributes.*;
-import static java.lang.Boolean.TRUE;
 
 /**
  * Handles POST \signOutGame when user chooses to sign-out.
@@ -29,6 +28,7 @@ public class GetSignOutRoute implements Route {
     private final PlayerLobby playerLobby;
     private final GameCenter gameCenter;
     private final ClientLobby clientLobby;
+    private final GameEventSocket gameEventSocket;
 
     /**
      * Create the Spark Route (UI controller) for the
@@ -36,8 +36,10 @@ public class GetSignOutRoute implements Route {
      *
      * @param playerLobby the playerLobby where the players are stored.
      */
-    public GetSignOutRoute(final PlayerLobby playerLobby, final GameCenter gameCenter, final ClientLobby clientLobby) {
+    public GetSignOutRoute(final PlayerLobby playerLobby, final GameCenter gameCenter, final ClientLobby clientLobby,
+                           final GameEventSocket gameEventSocket) {
         this.playerLobby = playerLobby;
+        this.gameEventSocket = gameEventSocket;
         this.clientLobby = clientLobby;
         this.gameCenter = gameCenter;
 
@@ -63,7 +65,7 @@ public class GetSignOutRoute implements Route {
             if (game.getWhitePlayer().equals(currentPlayer) || game.getRedPlayer().equals(currentPlayer)) {
                 // If player signing out is not a spectator, don't end the game
                 this.playerLobby.gameFinished(gameID);
-                this.gameCenter.removeGame(gameID, TRUE);
+                this.gameCenter.resignGame(gameID, currentPlayer);
             }
         } catch (NullPointerException e) {
             // When player not in game- is natural
@@ -72,6 +74,7 @@ public class GetSignOutRoute implements Route {
         // Sign out player
         this.playerLobby.signOut(currentPlayer);
         this.clientLobby.signOut(request.ip());
+        this.gameEventSocket.signedOut(currentPlayer);
 
         LOG.fine(SIGN_OUT_LOG_MSG + currentPlayer.getName());
 
@@ -36,10 +36,9 @@ public class PostBackupMoveRoute implements Route {
 
         if (game == null) {
             return this.gson.toJson(new Message(MID_GAME_PARTNER_RESIGN_MSG, Message.Type.info));
-        } else if (game.getInitialPosition(null) == null) {
+        } else if (!game.backUp()) {
             return this.gson.toJson(new Message(CANT_UNDO_MSG, Message.Type.error));
         } else {
-            game.backUp();
             return this.gson.toJson(new Message(UNDO_SUCCESS_MSG, Message.Type.info));
         }
     }
@@ -2,6 +2,7 @@ package com.webcheckers.ui;
 
 import com.google.gson.Gson;
 import com.webcheckers.appl.ClientLobby;
+import com.webcheckers.appl.ComputerOpponent;
 import com.webcheckers.appl.GameCenter;
 import com.webcheckers.appl.PlayerLobby;
 import com.webcheckers.model.Game;
@@ -28,12 +29,15 @@ public class PostCheckTurnRoute implements Route {
     private final GameCenter gameCenter;
     private final PlayerLobby playerLobby;
     private final ClientLobby clientLobby;
+    private final ComputerOpponent computerOpponent;
 
-    public PostCheckTurnRoute(Gson gson, GameCenter gameCenter, PlayerLobby playerLobby, ClientLobby clientLobby) {
+    public PostCheckTurnRoute(Gson gson, GameCenter gameCenter, PlayerLobby playerLobby, ClientLobby clientLobby,
+                              ComputerOpponent computerOpponent) {
         this.gson = gson;
         this.gameCenter = gameCenter;
         this.playerLobby = playerLobby;
         this.clientLobby = clientLobby;
+        this.computerOpponent = computerOpponent;
 
         initialize(PostCheckTurnRoute.class);
     }
@@ -64,6 +68,8 @@ public class PostCheckTurnRoute implements Route {
 
             if (game != null) {
                 activeColor = game.getColor();
+                // Restarts the computer's turn if it was lost, e.g. to a server restart.
+                this.computerOpponent.takeTurn(httpSession.attribute(GAME_ID_ATTR));
             }
 
             if (playerLobby.isSpectator(currentPlayer.getName())) {
@@ -56,7 +56,7 @@ public class PostResignGameRoute implements Route {
             final Session httpSession = request.session();
             int gameID = httpSession.attribute(GAME_ID_ATTR);
             this.playerLobby.gameFinished(gameID);
-            this.gameCenter.removeGame(gameID, TRUE);
+            this.gameCenter.resignGame(gameID, httpSession.attribute(CURRENT_PLAYER_ATTR));
             httpSession.removeAttribute(GAME_ID_ATTR);
         } catch (Exception e) {
             return this.gson.toJson(new Message(QUIT_FAIL_MSG, Message.Type.error));
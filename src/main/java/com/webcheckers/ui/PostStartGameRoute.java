@@ -1,22 +1,25 @@
 package com.webcheckers.ui;
 
+import com.webcheckers.appl.ComputerOpponent;
 import com.webcheckers.appl.GameCenter;
 import com.webcheckers.appl.PlayerLobby;
 import com.webcheckers.model.Game;
+import com.webcheckers.model.Piece;
 import com.webcheckers.model.Player;
 import spark.Request;
 import spark.Response;
 import spark.Route;
 import spark.Session;
 
-import java.util.Random;
 import java.util.logging.Logger;
 
 import static com.webcheckers.util.Attributes.*;
 
 /**
  * When a player clicks on another {@Link Player}'s name, they go through this POST route.
- * They are redirected to \game .
+ * They are redirected to \game . A player can also ask to play the computer, naming
+ * the color the computer plays with the <code>computer</code> query parameter and
+ * optionally how many threads it searches with in the <code>threads</code> parameter.
  *
  * @author <a href='mailto:kkt7778@rit.edu'>Ketaki Tilak</a>
  * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
@@ -24,21 +27,23 @@ import static com.webcheckers.util.Attributes.*;
  * @author <a href="mailto:np9379@rit.edu">Nathan Page</a>
  */
 public class PostStartGameRoute implements Route {
-    private static Random random = new Random();
     private static final Logger LOG = getLogger(PostStartGameRoute.class);
 
     private final PlayerLobby playerLobby;
     private final GameCenter gameCenter;
+    private final ComputerOpponent computerOpponent;
 
 
     /**
      * PostHome web route for {@Link WebServer}
      *
-     * @param playerLobby The {@Link PlayerLobby} where all of the {@Link Player}'s are stored
+     * @param playerLobby      The {@Link PlayerLobby} where all of the {@Link Player}'s are stored
+     * @param computerOpponent The {@Link ComputerOpponent} that plays games against the computer
      */
-    public PostStartGameRoute(PlayerLobby playerLobby, GameCenter gameCenter) {
+    public PostStartGameRoute(PlayerLobby playerLobby, GameCenter gameCenter, ComputerOpponent computerOpponent) {
         this.playerLobby = playerLobby;
         this.gameCenter = gameCenter;
+        this.computerOpponent = computerOpponent;
     }
 
     /**
@@ -52,18 +57,38 @@ public class PostStartGameRoute implements Route {
 
         // Set up Players that will be playing the CheckersGame
         Player currentPlayer = httpSession.attribute(CURRENT_PLAYER_ATTR);
+        String computerColor = request.queryParams(COMPUTER_ATTR);
+        if (computerColor != null) {
+            if (playerLobby.getOpponentOf(currentPlayer) == null) {
+                // Not already in a game - start one against the computer
+                Player computer = ComputerOpponent.createPlayer();
+                Game game = Piece.Color.RED.name().equals(computerColor) ? new Game(computer, currentPlayer)
+                        : new Game(currentPlayer, computer);
+                String threads = request.queryParams(THREADS_ATTR);
+                if (threads != null) {
+                    try {
+                        game.setSearchThreads(Integer.parseInt(threads));
+                    } catch (NumberFormatException ignored) {
+                        // Keep the default thread count
+                    }
+                }
+                int id = this.addGame(game);
+                httpSession.attribute(GAME_ID_ATTR, id);
+
+                LOG.fine(gameStartMsg(currentPlayer, computer));
+                this.computerOpponent.takeTurn(id);
+            }
+            response.redirect(WebServer.GAME_URL);
+            return null;
+        }
+
         Player opponent = this.playerLobby.getPlayer(request.queryParams(OPPONENT_ATTR));
 
         if (!playerLobby.isSpectator(opponent.getName()) && playerLobby.getOpponentOf(opponent) == null) {
             // Opponent is not yet in game
             Game game = new Game(currentPlayer, opponent);
 
-            // Mark the players in the game
-            int id;
-            do {
-                id = random.nextInt();
-            } while (!this.gameCenter.addGame(id, game));
-            this.playerLobby.markPlayersInGame(id);
+            int id = this.addGame(game);
             httpSession.attribute(GAME_ID_ATTR, id);
 
             LOG.fine(gameStartMsg(currentPlayer, opponent));
@@ -92,4 +117,17 @@ public class PostStartGameRoute implements Route {
 
         return null;
     }
+
+    /**
+     * Add a new {@Link Game} to the {@Link GameCenter} and mark its players as in game.
+     *
+     * @param game The new {@Link Game}
+     * @return ID number of the {@Link Game}
+     */
+    private int addGame(Game game) {
+        int id = this.gameCenter.addGame(game);
+        // Mark the players in the game
+        this.playerLobby.markPlayersInGame(id);
+        return id;
+    }
 }
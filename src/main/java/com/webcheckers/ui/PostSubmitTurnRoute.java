@@ -1,6 +1,7 @@
 package com.webcheckers.ui;
 
 import com.google.gson.Gson;
+import com.webcheckers.appl.ComputerOpponent;
 import com.webcheckers.appl.GameCenter;
 import com.webcheckers.model.Game;
 import com.webcheckers.model.Message;
@@ -22,23 +23,39 @@ public class PostSubmitTurnRoute implements Route {
     private Gson gson;
 
     private final GameCenter gameCenter;
+    private final ComputerOpponent computerOpponent;
 
-    public PostSubmitTurnRoute(Gson gson, GameCenter gameCenter) {
+    public PostSubmitTurnRoute(Gson gson, GameCenter gameCenter, ComputerOpponent computerOpponent) {
         this.gson = gson;
         this.gameCenter = gameCenter;
+        this.computerOpponent = computerOpponent;
     }
 
     @Override
     public Object handle(Request request, Response response) throws Exception {
-        Game game = this.gameCenter.getGame(request.session().attribute(GAME_ID_ATTR));
+        Integer gameID = request.session().attribute(GAME_ID_ATTR);
+        Game game = this.gameCenter.getGame(gameID);
         boolean movesMade = TRUE;
 
         if (game != null) {
-            movesMade = game.submitMoves();
-            this.gameCenter.log();
+            Game.TurnResult result;
+            long stored = 0;
+            synchronized (game) {
+                result = game.submitTurn();
+                if (result == Game.TurnResult.SUBMITTED) {
+                    stored = this.gameCenter.turnSubmitted(gameID, game);
+                }
+            }
+            // Wait for the turn to be stored without holding up the game.
+            this.gameCenter.awaitStored(stored);
+            if (result == Game.TurnResult.JUMP_UNFINISHED) {
+                // A multi-jump must be finished before the turn can end.
+                return gson.toJson(new Message(JUMP_UNFINISHED_MSG, Message.Type.error));
+            }
+            movesMade = result == Game.TurnResult.SUBMITTED;
             if (movesMade) {
-                // Switch the players turns if applicable.
-                game.changePlayer();
+                this.gameCenter.turnPlayed(gameID, game);
+                this.computerOpponent.takeTurn(gameID);
             }
         }
         return gson.toJson(new Message(movesMade ? MOVES_MADE_MSG : NO_MOVES_MSG, movesMade ? Message.Type.info
@@ -2,7 +2,9 @@ package com.webcheckers.ui;
 
 import com.google.gson.Gson;
 import com.webcheckers.appl.ClientLobby;
+import com.webcheckers.appl.ComputerOpponent;
 import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.Journal;
 import com.webcheckers.appl.PlayerLobby;
 import spark.TemplateEngine;
 
@@ -67,12 +69,18 @@ public class WebServer {
     public static final String GAMEEND_URL = "/gameEnd";
     public static final String SWITCHSIDES_URL = "/switchSides";
     public static final String ENDSPECTATE_URL = "/endSpectate";
+    public static final String JOURNALSTATS_URL = "/stats/journal";
+    public static final String GAMEPDN_URL = "/game/:id/pdn";
+    public static final String REPLAY_URL = "/replay/:id/:ply";
+    public static final String EVENTS_URL = "/events";
 
     private final TemplateEngine templateEngine;
     private final PlayerLobby playerLobby;
     private final Gson gson;
     private final GameCenter gameCenter;
     private final ClientLobby clientLobby;
+    private final ComputerOpponent computerOpponent;
+    private final Journal journal;
 
     /**
      * The constructor for the Web Server.
@@ -82,7 +90,8 @@ public class WebServer {
      * @throws NullPointerException If any of the parameters are {@code null}.
      */
     public WebServer(final PlayerLobby playerLobby, final TemplateEngine templateEngine,
-                     final Gson gson, final GameCenter gameCenter, final ClientLobby clientLobby) {
+                     final Gson gson, final GameCenter gameCenter, final ClientLobby clientLobby,
+                     final ComputerOpponent computerOpponent, final Journal journal) {
         Objects.requireNonNull(templateEngine, TEMPLATE_ENGINE_MSG);
         Objects.requireNonNull(gson, GSON_NULL_MSG);
 
@@ -91,6 +100,8 @@ public class WebServer {
         this.gson = gson;
         this.gameCenter = gameCenter;
         this.clientLobby = clientLobby;
+        this.computerOpponent = computerOpponent;
+        this.journal = journal;
     }
 
     /**
@@ -107,28 +118,40 @@ public class WebServer {
         // Configuration to serve static files
         staticFileLocation(STATIC_FILE_LOCATION);
 
+        // Pushes game events to players' pages. WebSockets must be set up before any route.
+        GameEventSocket gameEventSocket = new GameEventSocket(gson);
+        gameCenter.addListener(gameEventSocket);
+        webSocketIdleTimeoutMillis(EVENTS_IDLE_TIMEOUT);
+        webSocket(EVENTS_URL, gameEventSocket);
+
         // Shows the Checkers game Home page.
         get(HOME_URL, new GetHomeRoute(templateEngine, playerLobby, clientLobby));
 
         get(SIGNIN_URL, new GetSigninRoute(templateEngine, playerLobby));
 
-        get(GAME_URL, new GetGameRoute(templateEngine, playerLobby, gameCenter, clientLobby));
+        get(GAME_URL, new GetGameRoute(templateEngine, playerLobby, gameCenter, clientLobby, gameEventSocket));
 
         get(GAMEEND_URL, new GetGameEndRoute(templateEngine, playerLobby));
 
-        get(SIGNOUT_URL, new GetSignOutRoute(playerLobby, gameCenter, clientLobby));
+        get(SIGNOUT_URL, new GetSignOutRoute(playerLobby, gameCenter, clientLobby, gameEventSocket));
+
+        get(JOURNALSTATS_URL, new GetJournalStatsRoute(gson, journal));
+
+        get(GAMEPDN_URL, new GetGamePdnRoute(gameCenter));
+
+        get(REPLAY_URL, new GetReplayRoute(gson, gameCenter));
 
-        post(CHECKTURN_URL, new PostCheckTurnRoute(gson, gameCenter, playerLobby, clientLobby));
+        post(CHECKTURN_URL, new PostCheckTurnRoute(gson, gameCenter, playerLobby, clientLobby, computerOpponent));
 
         post(SIGNIN_URL, new PostSigninRoute(playerLobby, clientLobby));
 
-        post(STARTGAME_URL, new PostStartGameRoute(playerLobby, gameCenter));
+        post(STARTGAME_URL, new PostStartGameRoute(playerLobby, gameCenter, computerOpponent));
 
         post(VALIDATEMOVE_URL, new PostValidateMoveRoute(gson, gameCenter));
 
         post(RESIGNGAME_URL, new PostResignGameRoute(playerLobby, gson, gameCenter));
 
-        post(SUBMITTURN_URL, new PostSubmitTurnRoute(gson, gameCenter));
+        post(SUBMITTURN_URL, new PostSubmitTurnRoute(gson, gameCenter, computerOpponent));
 
         post(BACKUPMOVE_URL, new PostBackupMoveRoute(gson, gameCenter));
 
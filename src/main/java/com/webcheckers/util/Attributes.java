@@ -29,7 +29,30 @@ public abstract class Attributes {
     public static boolean STORE_CLIENTS = TRUE;
     public static long SESSION_ID = new Random().nextLong();
     public static final long EXPIRE_TIME = 300000;
+    public static final long SIGN_OUT_TIME = 1800000;
+    public static final long EXPIRY_TICK = 1000;
+    public static final int EXPIRY_WHEEL_SLOTS = 1024;
+    public static final int JOURNAL_COMPACT_RECORDS = 10000;
+    public static final long JOURNAL_COMMIT_WINDOW = 2;
+    public static final int JOURNAL_QUEUE_CAPACITY = 4096;
+    public static final long JOURNAL_CLOSE_SECONDS = 5;
+    public static final long JOURNAL_RETRY_MILLIS = 1000;
+    public static boolean LAZY_RECOVERY = TRUE;
+    public static final int RECOVERY_THREADS = Runtime.getRuntime().availableProcessors();
+    public static final int REPLAY_KEYFRAME_PLIES = 8;
+    public static final int REPLAY_CACHE_GAMES = 256;
+    public static final int EVENTS_IDLE_TIMEOUT = 3600000;
+    public static final String SESSION_COOKIE = "JSESSIONID";
     public static final String EXPIRE_CHAR = "!";
+    public static final String COMPUTER_NAME = "Computer (AI)";
+    public static final long COMPUTER_MOVE_TIME = 1000;
+    public static final int COMPUTER_MAX_DEPTH = 64;
+    public static final int COMPUTER_THREADS = Runtime.getRuntime().availableProcessors();
+    public static final int TRANSPOSITION_TABLE_MB = 64;
+    public static final int COMPUTER_SEARCH_THREADS = 1;
+    public static final int MAX_SEARCH_THREADS = Runtime.getRuntime().availableProcessors();
+    public static final int TABLEBASE_PIECES = 4;
+    public static boolean ADJUDICATE_ENDGAMES = TRUE;
 
     // ================ MESSAGES ================
     public static final String GSON_NULL_MSG = "gson must not be null";
@@ -52,10 +75,12 @@ public abstract class Attributes {
     public static final String QUIT_FAIL_MSG = "Failure. Partner Resigned. Make move to end game.";
     public static final String WIN_MSG = "YOU HAVE WON THE GAME!! Play Again?";
     public static final String LOSE_MSG = "Sorry, but you have lost the game. Play Again?";
+    public static final String DRAW_MSG = "The game is a draw with best play. Play Again?";
     public static final String SPACES_NAME_MSG = "Sorry, but you cannot use a name that starts or ends with a space. Please try again.";
     public static final String MID_GAME_PARTNER_RESIGN_MSG = "Your partner resigned mid-game. Please press submit to end the game.";
     public static final String JUMP_MOVE_AVAILABLE_MSG = "There is a jump move available. You must take it!";
     public static final String ALREADY_JUMPED_MSG = "This piece has already been jumped.";
+    public static final String JUMP_UNFINISHED_MSG = "You must keep jumping until no more jumps are available.";
     public static final String PLAYER_NAME_USED_MSG = "Sorry, but that player name is already taken. Please try again.";
     public static final String NAME_LONG_MSG = "Sorry, but that name is too long. The max length is " + MAX_NAME_LENGTH + " characters.";
     public static final String NON_EXISTANT_GAME_MSG = "This game no longer exists.";
@@ -79,6 +104,8 @@ public abstract class Attributes {
     public static final String FLIPPED_ATTR = "isFlipped";
     public static final String SESSION_ID_ATTR = "sessionID";
     public static final String EXPIRE_TEXT_ATTR = "expire_text";
+    public static final String COMPUTER_ATTR = "computer";
+    public static final String THREADS_ATTR = "threads";
 
     public static final List<String> ATTRIBUTES = new ArrayList();
 
@@ -102,7 +129,20 @@ public abstract class Attributes {
     public static final String STATIC_FILE_LOCATION = "/public";
     public static final String CLIENT_LOG_FILE_PATH = "clients.dat";
     public static final String GAME_LOG_FILE_PATH = "games.dat";
+    public static final String GAME_ARCHIVE_FILE_PATH = "archive.dat";
     public static final String LOBBY_LOG_FILE_PATH = "lobby.dat";
+    public static final String JOURNAL_DIRECTORY_PATH = "journal";
+    public static final String TABLEBASE_FILE_PATH = "endgame.tb";
+
+    // ================ HTTP ================
+    public static final String ETAG_HEADER = "ETag";
+    public static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    public static final String CACHE_CONTROL_HEADER = "Cache-Control";
+    public static final String REVALIDATE_CACHE_CONTROL = "public, no-cache";
+    public static final int HTTP_NOT_MODIFIED = 304;
+    public static final int HTTP_NOT_FOUND = 404;
+    public static final String JSON_CONTENT_TYPE = "application/json";
+    public static final String PDN_CONTENT_TYPE = "text/plain; charset=UTF-8";
 
     // ================ FORMATTERS ================
 
@@ -44,6 +44,9 @@ define(function(require){
     this._pendingMove = null;
     this.$activePiece = null;
     this._boardController = boardController;
+    this._onPush = null;
+    this._pushPending = false;
+    this._pushOpen = false;
     
     // Add the State Pattern mixin
     StatePatternMixin.call(this);
@@ -79,6 +82,8 @@ define(function(require){
      * Start Play mode.
      */
     this.startup = function startup() {
+      // listen for the server to say the game has changed
+      this.openPushChannel();
       // start Play mode
       this.setState(PlayModeConstants.PLAY_MODE_STARTING);
     }
@@ -168,6 +173,55 @@ define(function(require){
     }
   }
 
+  /**
+   * Open the WebSocket the server pushes game events on.  Waiting for a turn
+   * falls back to polling whenever the socket is not open.
+   */
+  PlayController.prototype.openPushChannel = function openPushChannel() {
+    if (!window.WebSocket) return;
+    var protocol = window.location.protocol === 'https:' ? 'wss://' : 'ws://';
+    var socket = new WebSocket(protocol + window.location.host + PlayModeConstants.EVENTS_URL);
+    socket.onopen = () => { this._pushOpen = true; };
+    socket.onclose = () => {
+      // reconnect if the socket had been accepted, e.g. after an idle timeout
+      if (this._pushOpen) {
+        this._pushOpen = false;
+        setTimeout(() => this.openPushChannel(), PlayModeConstants.POLL_DELAY);
+      }
+    };
+    socket.onmessage = (event) => {
+      console.debug('Pushed', event.data);
+      var callback = this._onPush;
+      if (callback !== null) {
+        this._onPush = null;
+        callback();
+      } else {
+        // not waiting right now; check as soon as waiting starts
+        this._pushPending = true;
+      }
+    };
+  };
+
+  /**
+   * @return true if the server can push game events to this page
+   */
+  PlayController.prototype.isPushOpen = function isPushOpen() {
+    return this._pushOpen;
+  };
+
+  /**
+   * Call back once, on the next game event pushed, or straight away if one
+   * came while nothing was waiting.  Pass null to stop waiting.
+   */
+  PlayController.prototype.waitForPush = function waitForPush(callback) {
+    this._onPush = callback;
+    if (callback !== null && this._pushPending) {
+      this._pushPending = false;
+      this._onPush = null;
+      callback();
+    }
+  };
+
   PlayController.prototype.isTurnActive = function isTurnActive() {
     return this._turn.length > 0;
   };
@@ -33,5 +33,13 @@ define(function(){
       ,RESIGN_BUTTON_ID: 'resignBtn'
       ,RESIGN_BUTTON_TOOLTIP: 'Resign from the game.'
 
+      //
+      // Waiting for my turn
+      //
+
+      ,EVENTS_URL: '/events'
+      ,POLL_DELAY: 3000
+      ,PUSH_FALLBACK_DELAY: 30000
+
     };
 });
\ No newline at end of file
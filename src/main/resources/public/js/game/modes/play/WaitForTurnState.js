@@ -39,8 +39,19 @@ define(function(require){
    */
   WaitForTurnState.prototype.onEntry = function onEntry() {
     this._controller.enableButton(PlayModeConstants.RESIGN_BUTTON_ID);
-    // wait five seconds then check my turn
-    setTimeout(() => { this._controller.setState(PlayModeConstants.CHECK_MY_TURN); }, 3000);
+    var timer = null;
+    var checkMyTurn = () => {
+      if (timer === null) return;
+      clearTimeout(timer);
+      timer = null;
+      this._controller.waitForPush(null);
+      this._controller.setState(PlayModeConstants.CHECK_MY_TURN);
+    };
+    // check my turn as soon as the server says the game changed; poll less
+    // often while it can, and as before when it cannot
+    timer = setTimeout(checkMyTurn, this._controller.isPushOpen() ?
+        PlayModeConstants.PUSH_FALLBACK_DELAY : PlayModeConstants.POLL_DELAY);
+    this._controller.waitForPush(checkMyTurn);
   }
 
   // export class constructor
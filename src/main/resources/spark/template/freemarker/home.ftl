@@ -31,6 +31,14 @@
             <p> Click on a <b class="IS_OTHER">green</b> player to start a game with them. <br>
             Click on a player in game (<b class="IN_GAME">red</b>) to spectate their game. <br>
             Click on a spectator (<b class="IS_SPECTATOR">black</b>) to spectate the game they are watching. <br></p>
+            <p>
+                <form method="post" action="startGame?computer=WHITE" class="inline">
+                    <button type="submit" class="link-button">[Play the computer as red]</button>
+                </form>
+                <form method="post" action="startGame?computer=RED" class="inline">
+                    <button type="submit" class="link-button">[Play the computer as white]</button>
+                </form>
+            </p>
             <p>Current players signed in:</p>
 			<#if playerList?size == 1>
                 <p><em>(none)</em></p>
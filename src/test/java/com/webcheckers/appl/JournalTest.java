@@ -0,0 +1,243 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.model.Game;
+import com.webcheckers.model.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The unit test suite for the {@Link Journal} component.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+@Tag("Application-tier")
+public class JournalTest {
+
+    private static final long WAIT_MILLIS = 10000;
+
+    /**
+     * A {@Link Journal.Store} holding a set of numbers, one per record, so replaying a
+     * record twice changes nothing.
+     */
+    private static final class NumberStore implements Journal.Store {
+        private final Set<Integer> numbers = new TreeSet<>();
+
+        @Override
+        public synchronized void snapshot(DataOutputStream out) throws IOException {
+            out.writeInt(this.numbers.size());
+            for (int number : this.numbers) {
+                out.writeInt(number);
+            }
+        }
+
+        @Override
+        public synchronized void restore(DataInputStream in) throws IOException {
+            for (int i = in.readInt(); i > 0; i--) {
+                this.numbers.add(in.readInt());
+            }
+        }
+
+        @Override
+        public void restoreLegacy(ObjectInputStream in) {
+        }
+
+        @Override
+        public synchronized void replay(Journal.Type type, DataInputStream in) throws IOException {
+            this.numbers.add(in.readInt());
+        }
+
+        synchronized void add(Journal journal, int number) {
+            this.numbers.add(number);
+            journal.append(Journal.Type.PLAYER_MARKED, out -> out.writeInt(number));
+        }
+
+        synchronized Set<Integer> getNumbers() {
+            return new TreeSet<>(this.numbers);
+        }
+    }
+
+    private File directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("journal").toFile();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.directory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * Open a journal over the test directory with a {@Link NumberStore}, and wait for the
+     * snapshot written when it is recovered.
+     */
+    private Journal open(NumberStore store) throws InterruptedException {
+        Journal journal = new Journal(this.directory.getPath(), Journal.Durability.GROUP);
+        journal.register(store, Journal.Type.PLAYER_MARKED);
+        long before = this.snapshotFile().lastModified();
+        journal.recover();
+        this.awaitSnapshotAfter(before);
+        return journal;
+    }
+
+    private File snapshotFile() {
+        return new File(this.directory, "snapshot.dat");
+    }
+
+    /**
+     * Wait for a snapshot newer than a time, and for the segments it replaces to be deleted.
+     */
+    private void awaitSnapshotAfter(long before) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!this.snapshotFile().exists() || this.snapshotFile().lastModified() <= before && before > 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "No snapshot written");
+            Thread.sleep(10);
+        }
+        // The old segments are deleted straight after the snapshot is moved into place.
+        Thread.sleep(100);
+    }
+
+    /**
+     * @return the segment files, in order
+     */
+    private File[] segments() {
+        File[] files = this.directory.listFiles((dir, name) -> name.startsWith("journal-"));
+        assertNotNull(files);
+        Arrays.sort(files);
+        return files;
+    }
+
+    /**
+     * A record torn part way through at the end of a segment is dropped, and the records
+     * before it and after it are still recovered.
+     */
+    @Test
+    public void tornTailIsDropped() throws Exception {
+        NumberStore store = new NumberStore();
+        Journal journal = this.open(store);
+        for (int i = 1; i <= 3; i++) {
+            store.add(journal, i);
+        }
+        journal.close();
+        File[] segments = this.segments();
+        // Claim a 100 byte record but write only 3 bytes of it
+        Files.write(segments[segments.length - 1].toPath(), new byte[]{0, 0, 0, 100, 1, 2, 3},
+                StandardOpenOption.APPEND);
+
+        NumberStore recovered = new NumberStore();
+        Journal second = this.open(recovered);
+        assertEquals(new TreeSet<>(Arrays.asList(1, 2, 3)), recovered.getNumbers());
+        recovered.add(second, 4);
+        second.close();
+
+        NumberStore last = new NumberStore();
+        this.open(last).close();
+        assertEquals(new TreeSet<>(Arrays.asList(1, 2, 3, 4)), last.getNumbers());
+    }
+
+    /**
+     * A batch whose write fails is retried, in a new segment, before the append returns,
+     * so a record reported as committed is recovered.
+     */
+    @Test
+    public void failedWriteIsRetried() throws Exception {
+        NumberStore store = new NumberStore();
+        Journal journal = this.open(store);
+        store.add(journal, 1);
+        // Break the open segment so the next write fails
+        Field channel = Journal.class.getDeclaredField("channel");
+        channel.setAccessible(true);
+        ((FileChannel) channel.get(journal)).close();
+        store.add(journal, 2);
+        journal.close();
+        assertTrue(this.segments().length > 1);
+
+        NumberStore recovered = new NumberStore();
+        this.open(recovered).close();
+        assertEquals(new TreeSet<>(Arrays.asList(1, 2)), recovered.getNumbers());
+    }
+
+    /**
+     * Replaying records whose changes the snapshot already holds leaves the
+     * {@Link GameCenter} as the snapshot had it: turns are not played twice and a
+     * resignation is still there to check out.
+     */
+    @Test
+    public void snapshotThenReplayIsIdempotent() throws Exception {
+        Journal journal = new Journal(this.directory.getPath());
+        GameCenter gameCenter = new GameCenter(journal, new GameArchive(null));
+        journal.recover();
+        this.awaitSnapshotAfter(0);
+        Game game = new Game(new Player("red"), new Player("white"));
+        int id = gameCenter.addGame(game);
+        for (int i = 0; i < 3; i++) {
+            long ticket;
+            synchronized (game) {
+                game.playTurn(game.getLegalMoves().getMoves(0));
+                ticket = gameCenter.turnSubmitted(id, game);
+            }
+            gameCenter.awaitStored(ticket);
+        }
+        Game resigned = new Game(new Player("a"), new Player("b"));
+        int resignedID = gameCenter.addGame(resigned);
+        gameCenter.resignGame(resignedID, resigned.getWhitePlayer());
+        journal.close();
+
+        // Keep the records, then let a recovery fold them into a new snapshot.
+        File[] written = this.segments();
+        byte[][] records = new byte[written.length][];
+        for (int i = 0; i < written.length; i++) {
+            records[i] = Files.readAllBytes(written[i].toPath());
+        }
+        long before = this.snapshotFile().lastModified();
+        Thread.sleep(1000);
+        Journal second = new Journal(this.directory.getPath());
+        new GameCenter(second, new GameArchive(null));
+        second.recover();
+        this.awaitSnapshotAfter(before);
+        second.close();
+
+        // Put the same records back after the snapshot, as if it was taken part way through them.
+        File[] remaining = this.segments();
+        String last = remaining[remaining.length - 1].getName();
+        long next = Long.parseLong(last.substring("journal-".length(), last.indexOf('.'))) + 1;
+        for (byte[] segment : records) {
+            Files.write(new File(this.directory, String.format("journal-%08d.dat", next++)).toPath(), segment);
+        }
+
+        Journal third = new Journal(this.directory.getPath());
+        GameCenter replayed = new GameCenter(third, new GameArchive(null));
+        third.recover();
+        try {
+            Game restored = replayed.getGame(id);
+            assertNotNull(restored);
+            assertEquals(3, restored.getPly());
+            assertArrayEquals(game.getMoveLog(), restored.getMoveLog());
+            assertNull(replayed.getGame(resignedID));
+            assertTrue(replayed.checkout(resignedID));
+            assertFalse(replayed.checkout(resignedID));
+            assertTrue(replayed.addGame(new Game(new Player("c"), new Player("d"))) > resignedID);
+        } finally {
+            third.close();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.webcheckers.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The unit test suite for the {@Link GameCodec} component.
+ *
+ * @author <a href="mailto:ajs1551@rit.edu">Adam Seidman</a>
+ */
+@Tag("Model-tier")
+public class GameCodecTest {
+
+    /**
+     * Bytes before a record's version: its length and CRC
+     */
+    private static final int HEADER_BYTES = 8;
+
+    private Game game;
+
+    @BeforeEach
+    public void setUp() {
+        this.game = new Game(new Player("red"), new Player("white"));
+        for (int i = 0; i < 6; i++) {
+            assertEquals(Game.TurnResult.SUBMITTED, this.game.playTurn(this.game.getLegalMoves().getMoves(0)));
+        }
+    }
+
+    /**
+     * A decoded game has the same players, board, turns and move log as the one encoded.
+     */
+    @Test
+    public void roundTrip() throws Exception {
+        Game decoded = GameCodec.decode(GameCodec.encode(this.game));
+
+        assertEquals("red", decoded.getRedPlayer().getName());
+        assertEquals("white", decoded.getWhitePlayer().getName());
+        assertEquals(this.game.getPly(), decoded.getPly());
+        assertEquals(this.game.getColor(), decoded.getColor());
+        assertArrayEquals(this.game.getMoveLog(), decoded.getMoveLog());
+        assertArrayEquals(this.game.getLastTurn(), decoded.getLastTurn());
+        assertEquals(this.game.getCreated(), decoded.getCreated());
+        Board expected = this.game.copyBoard();
+        Board actual = decoded.copyBoard();
+        assertEquals(expected.getPieces(Piece.Color.RED), actual.getPieces(Piece.Color.RED));
+        assertEquals(expected.getPieces(Piece.Color.WHITE), actual.getPieces(Piece.Color.WHITE));
+        assertEquals(expected.getKings(), actual.getKings());
+        assertEquals("*", decoded.getResult());
+    }
+
+    /**
+     * A resignation survives the round trip.
+     */
+    @Test
+    public void roundTripResigned() throws Exception {
+        this.game.resign(this.game.getWhitePlayer());
+
+        Game decoded = GameCodec.decode(GameCodec.encode(this.game));
+
+        assertEquals("1-0", decoded.getResult());
+    }
+
+    /**
+     * Records written one after another are read back in order from one stream.
+     */
+    @Test
+    public void readsRecordsInSequence() throws Exception {
+        Game other = new Game(new Player("a"), new Player("b"));
+        byte[] first = GameCodec.encode(this.game);
+        byte[] second = GameCodec.encode(other);
+        byte[] both = new byte[first.length + second.length];
+        System.arraycopy(first, 0, both, 0, first.length);
+        System.arraycopy(second, 0, both, first.length, second.length);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(both));
+
+        assertEquals(this.game.getPly(), GameCodec.read(in).getPly());
+        assertEquals("a", GameCodec.read(in).getRedPlayer().getName());
+    }
+
+    /**
+     * Flipping any bit of a record's body makes it fail its CRC.
+     */
+    @Test
+    public void rejectsFlippedBit() {
+        byte[] record = GameCodec.encode(this.game);
+        for (int i = HEADER_BYTES; i < record.length; i++) {
+            byte[] corrupt = record.clone();
+            corrupt[i] ^= 1 << (i % 8);
+            assertThrows(StreamCorruptedException.class, () -> GameCodec.decode(corrupt), "byte " + i);
+        }
+    }
+
+    /**
+     * A record from a newer version of the codec is reported, not misread.
+     */
+    @Test
+    public void rejectsUnknownVersion() {
+        byte[] record = GameCodec.encode(this.game);
+        record[HEADER_BYTES] = (byte) (GameCodec.VERSION + 1);
+        // Recompute the CRC so only the version is wrong
+        CRC32 crc = new CRC32();
+        crc.update(record, HEADER_BYTES, record.length - HEADER_BYTES);
+        ByteBuffer.wrap(record).putInt(Integer.BYTES, (int) crc.getValue());
+
+        assertThrows(StreamCorruptedException.class, () -> GameCodec.decode(record));
+    }
+}